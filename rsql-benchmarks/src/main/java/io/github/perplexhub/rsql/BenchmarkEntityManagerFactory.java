@@ -0,0 +1,44 @@
+package io.github.perplexhub.rsql;
+
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+
+import org.hibernate.jpa.HibernatePersistenceConfiguration;
+
+import io.github.perplexhub.rsql.model.*;
+import io.github.perplexhub.rsql.model.account.AccountEntity;
+import io.github.perplexhub.rsql.model.account.AddressEntity;
+import io.github.perplexhub.rsql.model.account.AddressHistoryEntity;
+
+/**
+ * In-memory H2 persistence unit of the test model, shared by the benchmarks.
+ */
+final class BenchmarkEntityManagerFactory {
+
+	private BenchmarkEntityManagerFactory() {
+	}
+
+	static EntityManagerFactory create() {
+		return new HibernatePersistenceConfiguration("rsql-benchmarks")
+				.managedClasses(User.class, UserRole.class, Role.class, Company.class, City.class, Project.class, AdminProject.class,
+						DesignProject.class, ProjectTag.class, LocalTag.class, BigTag.class, Site.class, Trunk.class, TrunkGroup.class,
+						AccountEntity.class, AddressEntity.class, AddressHistoryEntity.class)
+				.jdbcUrl("jdbc:h2:mem:rsql-benchmarks;DB_CLOSE_DELAY=-1")
+				.jdbcCredentials("sa", "")
+				.property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "create-drop")
+				.createEntityManagerFactory();
+	}
+
+	/**
+	 * Creates an entity manager and registers it with the RSQL support.
+	 */
+	static EntityManager createEntityManager(EntityManagerFactory entityManagerFactory) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		new RSQLJPASupport(Map.of("entityManager", entityManager));
+		return entityManager;
+	}
+
+}
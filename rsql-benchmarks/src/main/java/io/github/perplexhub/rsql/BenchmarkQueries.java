@@ -0,0 +1,45 @@
+package io.github.perplexhub.rsql;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.stream.IntStream;
+
+/**
+ * RSQL queries of the test model, by width, path depth and {@code =in=} size.
+ */
+final class BenchmarkQueries {
+
+	/**
+	 * Property paths of {@code User} by depth, from 1 to 4.
+	 */
+	static final String[] PATHS = { "name", "company.name", "projects.projectTag.id", "projects.projectTag.localTag.description" };
+
+	private BenchmarkQueries() {
+	}
+
+	static String path(int depth) {
+		return PATHS[depth - 1];
+	}
+
+	/**
+	 * @return {@code width} comparisons of the property at the given depth, joined by {@code ;}
+	 */
+	static String conjunction(int width, int depth) {
+		return IntStream.range(0, width).mapToObj(i -> path(depth) + "=='" + i + "'").collect(joining(";"));
+	}
+
+	/**
+	 * @return an {@code =in=} comparison of {@code id} with {@code size} arguments
+	 */
+	static String in(int size) {
+		return IntStream.range(0, size).mapToObj(Integer::toString).collect(joining(",", "id=in=(", ")"));
+	}
+
+	/**
+	 * @return a sort query of {@code fields} properties at the given depth
+	 */
+	static String sort(int fields, int depth) {
+		return IntStream.range(0, fields).mapToObj(i -> path(depth) + (i % 2 == 0 ? ",asc" : ",desc,ic")).collect(joining(";"));
+	}
+
+}
@@ -0,0 +1,48 @@
+package io.github.perplexhub.rsql;
+
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.perplexhub.rsql.model.User;
+
+/**
+ * H2 entity manager of the test model, registered with the RSQL support.
+ */
+@State(Scope.Benchmark)
+public class JpaBenchmarkState {
+
+	EntityManagerFactory entityManagerFactory;
+	EntityManager entityManager;
+
+	@Setup
+	public void setUp() {
+		entityManagerFactory = BenchmarkEntityManagerFactory.create();
+		entityManager = BenchmarkEntityManagerFactory.createEntityManager(entityManagerFactory);
+	}
+
+	@TearDown
+	public void tearDown() {
+		entityManager.close();
+		entityManagerFactory.close();
+	}
+
+	Predicate toPredicate(Node node) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<User> query = builder.createQuery(User.class);
+		Root<User> root = query.from(User.class);
+		return node.accept(new RSQLJPAPredicateConverter(builder, Map.of()), root);
+	}
+
+}
@@ -0,0 +1,79 @@
+package io.github.perplexhub.rsql;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.criteria.Predicate;
+
+import org.openjdk.jmh.annotations.*;
+
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * Cost of building JPA criteria predicates with {@link RSQLJPAPredicateConverter}, by query width, property path
+ * depth and {@code =in=} size. Queries are parsed in the setup, so only the criteria building is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JpaPredicateBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Width {
+
+		@Param({ "1", "10", "100", "1000" })
+		int width;
+
+		Node node;
+
+		@Setup
+		public void setUp() {
+			node = RSQLCommonSupport.parse(BenchmarkQueries.conjunction(width, 1), RSQLOperators.supportedOperators());
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Depth {
+
+		@Param({ "1", "2", "3", "4" })
+		int depth;
+
+		Node node;
+
+		@Setup
+		public void setUp() {
+			node = RSQLCommonSupport.parse(BenchmarkQueries.conjunction(1, depth), RSQLOperators.supportedOperators());
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class InSize {
+
+		@Param({ "1", "10", "100", "1000" })
+		int size;
+
+		Node node;
+
+		@Setup
+		public void setUp() {
+			node = RSQLCommonSupport.parse(BenchmarkQueries.in(size), RSQLOperators.supportedOperators());
+		}
+	}
+
+	@Benchmark
+	public Predicate width(JpaBenchmarkState jpa, Width width) {
+		return jpa.toPredicate(width.node);
+	}
+
+	@Benchmark
+	public Predicate depth(JpaBenchmarkState jpa, Depth depth) {
+		return jpa.toPredicate(depth.node);
+	}
+
+	@Benchmark
+	public Predicate in(JpaBenchmarkState jpa, InSize inSize) {
+		return jpa.toPredicate(inSize.node);
+	}
+
+}
@@ -0,0 +1,49 @@
+package io.github.perplexhub.rsql;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.github.perplexhub.rsql.JsonbSupport.JsonbPathExpression;
+
+/**
+ * Cost of building jsonb path expressions by {@code =in=} size and key path depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonbBenchmark {
+
+	@Param({ "1", "10", "100", "1000" })
+	int size;
+
+	@Param({ "1", "2", "4" })
+	int depth;
+
+	private String keyPath;
+	private List<String> arguments;
+
+	@Setup
+	public void setUp() {
+		keyPath = "json" + IntStream.range(0, depth).mapToObj(i -> ".key" + i).reduce("", String::concat);
+		arguments = IntStream.range(0, size).mapToObj(i -> i % 2 == 0 ? "value" + i : Integer.toString(i)).collect(toList());
+	}
+
+	@Benchmark
+	public JsonbPathExpression in() {
+		return new JsonbExpressionBuilder(RSQLOperators.IN, keyPath, arguments).getJsonPathExpression();
+	}
+
+	@Benchmark
+	public JsonbPathExpression equal() {
+		return new JsonbExpressionBuilder(RSQLOperators.EQUAL, keyPath, arguments.subList(0, 1)).getJsonPathExpression();
+	}
+
+}
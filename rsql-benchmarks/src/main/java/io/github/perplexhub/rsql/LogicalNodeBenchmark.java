@@ -0,0 +1,101 @@
+package io.github.perplexhub.rsql;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.openjdk.jmh.annotations.*;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.perplexhub.rsql.model.User;
+
+/**
+ * Cost of building the criteria of wide AND/OR queries, comparing the n-ary junction built by
+ * {@link RSQLJPAPredicateConverter} with the left-deep chain of binary junctions it used to build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogicalNodeBenchmark {
+
+	@Param({ "1", "10", "100", "1000" })
+	int width;
+
+	@Param({ ";", "," })
+	String operator;
+
+	/**
+	 * Whether the criteria query is also handed to Hibernate, which copies and interprets the predicate tree.
+	 */
+	@Param({ "false", "true" })
+	boolean createQuery;
+
+	private EntityManagerFactory entityManagerFactory;
+	private EntityManager entityManager;
+	private Node node;
+
+	@Setup
+	public void setUp() {
+		entityManagerFactory = BenchmarkEntityManagerFactory.create();
+		entityManager = BenchmarkEntityManagerFactory.createEntityManager(entityManagerFactory);
+		String rsql = IntStream.range(0, width).mapToObj(i -> "name==user" + i).collect(joining(operator));
+		node = RSQLCommonSupport.parse(rsql, RSQLOperators.supportedOperators());
+	}
+
+	@TearDown
+	public void tearDown() {
+		entityManager.close();
+		entityManagerFactory.close();
+	}
+
+	@Benchmark
+	public Object naryJunction() {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<User> query = builder.createQuery(User.class);
+		Root<User> root = query.from(User.class);
+		Predicate predicate = node.accept(new RSQLJPAPredicateConverter(builder, Map.of()), root);
+		return finish(query, predicate);
+	}
+
+	@Benchmark
+	public Object leftDeepJunction() {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<User> query = builder.createQuery(User.class);
+		Root<User> root = query.from(User.class);
+		RSQLJPAPredicateConverter converter = new RSQLJPAPredicateConverter(builder, Map.of());
+		Predicate predicate;
+		if (node instanceof LogicalNode logicalNode) {
+			predicate = null;
+			for (Node child : logicalNode) {
+				Predicate childPredicate = child.accept(converter, root);
+				if (predicate == null) {
+					predicate = childPredicate;
+				} else {
+					predicate = logicalNode instanceof AndNode ? builder.and(predicate, childPredicate) : builder.or(predicate, childPredicate);
+				}
+			}
+		} else {
+			predicate = node.accept(converter, root);
+		}
+		return finish(query, predicate);
+	}
+
+	private Object finish(CriteriaQuery<User> query, Predicate predicate) {
+		return createQuery ? entityManager.createQuery(query.where(predicate)) : predicate;
+	}
+
+}
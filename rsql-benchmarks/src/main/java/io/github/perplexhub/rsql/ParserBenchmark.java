@@ -0,0 +1,47 @@
+package io.github.perplexhub.rsql;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+
+/**
+ * Cost of parsing RSQL queries, with a new parse every time and through the shared parser cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({ "1", "10", "100", "1000" })
+	int width;
+
+	private Set<ComparisonOperator> operators;
+	private RSQLParser parser;
+	private String rsql;
+
+	@Setup
+	public void setUp() {
+		operators = RSQLOperators.supportedOperators();
+		parser = new RSQLParser(operators);
+		rsql = BenchmarkQueries.conjunction(width, 1);
+	}
+
+	@Benchmark
+	public Node parse() {
+		return parser.parse(rsql);
+	}
+
+	@Benchmark
+	public Node parseCached() {
+		return RSQLCommonSupport.parse(rsql, operators);
+	}
+
+}
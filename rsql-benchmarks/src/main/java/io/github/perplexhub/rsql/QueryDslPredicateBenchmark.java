@@ -0,0 +1,46 @@
+package io.github.perplexhub.rsql;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.perplexhub.rsql.model.QUser;
+
+/**
+ * Cost of building QueryDSL predicates with {@link RSQLQueryDslPredicateConverter}, by query width and property path
+ * depth. Queries are parsed in the setup, so only the predicate building is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryDslPredicateBenchmark {
+
+	@Param({ "1", "10", "100", "1000" })
+	int width;
+
+	@Param({ "1", "2", "4" })
+	int depth;
+
+	private Node node;
+
+	@Setup
+	public void setUp() {
+		node = RSQLCommonSupport.parse(BenchmarkQueries.conjunction(width, depth), RSQLOperators.supportedOperators());
+	}
+
+	/**
+	 * The JPA state registers the entity manager whose metamodel the converter resolves the paths against.
+	 */
+	@Benchmark
+	public BooleanExpression toPredicate(JpaBenchmarkState jpa) {
+		return node.accept(new RSQLQueryDslPredicateConverter(Map.of()), QUser.user);
+	}
+
+}
@@ -0,0 +1,46 @@
+package io.github.perplexhub.rsql;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.github.perplexhub.rsql.model.User;
+
+/**
+ * Cost of {@link SortUtils#parseSort} by number of sort fields and property path depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+	@Param({ "1", "10" })
+	int fields;
+
+	@Param({ "1", "2", "3", "4" })
+	int depth;
+
+	private String sort;
+
+	@Setup
+	public void setUp() {
+		sort = BenchmarkQueries.sort(fields, depth);
+	}
+
+	@Benchmark
+	public List<Order> parseSort(JpaBenchmarkState jpa) {
+		CriteriaBuilder builder = jpa.entityManager.getCriteriaBuilder();
+		Root<User> root = builder.createQuery(User.class).from(User.class);
+		return SortUtils.parseSort(sort, Map.of(), root, builder);
+	}
+
+}
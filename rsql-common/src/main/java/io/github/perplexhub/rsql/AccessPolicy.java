@@ -0,0 +1,63 @@
+package io.github.perplexhub.rsql;
+
+import java.util.*;
+
+/**
+ * Immutable property whitelist and blacklist per entity type, compiled into hashed sets.
+ */
+final class AccessPolicy {
+
+	static final AccessPolicy EMPTY = new AccessPolicy(Map.of(), Map.of());
+
+	private final Map<Class<?>, Set<String>> whitelist;
+	private final Map<Class<?>, Set<String>> blacklist;
+
+	private AccessPolicy(Map<Class<?>, Set<String>> whitelist, Map<Class<?>, Set<String>> blacklist) {
+		this.whitelist = whitelist;
+		this.blacklist = blacklist;
+	}
+
+	static AccessPolicy of(Map<Class<?>, ? extends Collection<String>> whitelist, Map<Class<?>, ? extends Collection<String>> blacklist) {
+		if ((whitelist == null || whitelist.isEmpty()) && (blacklist == null || blacklist.isEmpty())) {
+			return EMPTY;
+		}
+		return new AccessPolicy(compile(whitelist), compile(blacklist));
+	}
+
+	private static Map<Class<?>, Set<String>> compile(Map<Class<?>, ? extends Collection<String>> rules) {
+		if (rules == null || rules.isEmpty()) {
+			return Map.of();
+		}
+		Map<Class<?>, Set<String>> compiled = new HashMap<>();
+		rules.forEach((type, properties) -> {
+			if (type != null && properties != null) {
+				compiled.put(type, Set.copyOf(new HashSet<>(properties)));
+			}
+		});
+		return Map.copyOf(compiled);
+	}
+
+	/**
+	 * @return the whitelisted properties of the given type, or {@code null} if the type has no whitelist
+	 */
+	Set<String> getWhitelist(Class<?> type) {
+		return whitelist.get(type);
+	}
+
+	/**
+	 * @return the blacklisted properties of the given type, or {@code null} if the type has no blacklist
+	 */
+	Set<String> getBlacklist(Class<?> type) {
+		return blacklist.get(type);
+	}
+
+	boolean isEmpty() {
+		return whitelist.isEmpty() && blacklist.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("whitelist:%s,blacklist:%s", whitelist, blacklist);
+	}
+
+}
@@ -0,0 +1,96 @@
+package io.github.perplexhub.rsql;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable set of ids stored in an {@link IdSetStore}.<br>
+ * Integral ids are kept in a primitive {@code long[]}, other ids such as {@link java.util.UUID} in an array of their
+ * own type, and both are converted to the type of the compared property only when a query is built.
+ */
+public final class IdSet {
+
+	private final long[] longs;
+	private final Object[] values;
+
+	private IdSet(long[] longs, Object[] values) {
+		this.longs = longs;
+		this.values = values;
+	}
+
+	/**
+	 * @param ids the ids, all either integral numbers ({@link Long}, {@link Integer}, {@link Short}, {@link Byte}) or
+	 *            non-null values of any other type
+	 * @return the id set
+	 */
+	public static IdSet of(Collection<?> ids) {
+		Objects.requireNonNull(ids, "ids");
+		if (!ids.isEmpty() && ids.stream().allMatch(IdSet::isIntegral)) {
+			return new IdSet(ids.stream().mapToLong(id -> ((Number) id).longValue()).toArray(), null);
+		}
+		Object[] values = ids.toArray();
+		for (Object value : values) {
+			Objects.requireNonNull(value, "id");
+		}
+		return new IdSet(null, values);
+	}
+
+	public static IdSet of(long... ids) {
+		return new IdSet(ids.clone(), null);
+	}
+
+	private static boolean isIntegral(Object id) {
+		return id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte;
+	}
+
+	public int size() {
+		return longs != null ? longs.length : values.length;
+	}
+
+	/**
+	 * Returns the ids as an array of the given type.
+	 *
+	 * @param type      the type of the compared property
+	 * @param converter converts the string form of an id the type cannot be cast or widened to
+	 * @return a new array of the given component type
+	 */
+	Object[] toArray(Class<?> type, Function<String, Object> converter) {
+		Object[] array = (Object[]) Array.newInstance(type, size());
+		for (int i = 0; i < array.length; i++) {
+			array[i] = longs != null ? convert(longs[i], type, converter) : convert(values[i], type, converter);
+		}
+		return array;
+	}
+
+	private static Object convert(long id, Class<?> type, Function<String, Object> converter) {
+		if (type == Long.class) {
+			return id;
+		} else if (type == Integer.class) {
+			return Math.toIntExact(id);
+		} else if (type == Short.class) {
+			return (short) checkRange(id, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+		} else if (type == Byte.class) {
+			return (byte) checkRange(id, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+		}
+		return converter.apply(Long.toString(id));
+	}
+
+	private static long checkRange(long id, long min, long max, String type) {
+		if (id < min || id > max) {
+			throw new ArithmeticException(type + " overflow");
+		}
+		return id;
+	}
+
+	private static Object convert(Object id, Class<?> type, Function<String, Object> converter) {
+		return type.isInstance(id) ? id : converter.apply(id.toString());
+	}
+
+	@Override
+	public String toString() {
+		return String.format("IdSet[%d]", size());
+	}
+
+}
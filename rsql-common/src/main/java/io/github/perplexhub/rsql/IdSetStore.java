@@ -0,0 +1,31 @@
+package io.github.perplexhub.rsql;
+
+import java.util.Collection;
+
+/**
+ * Server-side store of id sets referenced from RSQL queries, e.g. {@code id=inset=<handle>}.<br>
+ * Clients upload a large id set once and send its handle with every request instead of the ids, which saves parsing,
+ * converting and transferring them again for each page of the same search.
+ *
+ * @see RSQLOperators#IN_SET
+ * @see RSQLOperators#NOT_IN_SET
+ */
+public interface IdSetStore {
+
+	/**
+	 * Stores the given ids.
+	 *
+	 * @param ids the ids
+	 * @return the handle of the stored id set
+	 */
+	String put(Collection<?> ids);
+
+	/**
+	 * @param handle the handle returned by {@link #put(Collection)}
+	 * @return the id set, or {@code null} if the handle is unknown or the id set was evicted
+	 */
+	IdSet get(String handle);
+
+	void remove(String handle);
+
+}
@@ -0,0 +1,52 @@
+package io.github.perplexhub.rsql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How the arguments of {@link RSQLOperators#IN} and {@link RSQLOperators#NOT_IN} are bound.<br>
+ * With one parameter per argument, every list size produces a different statement for the query plan cache and the
+ * database. Padding or array binding keeps the number of distinct statements small.
+ */
+public enum InListBinding {
+
+	/**
+	 * One parameter per argument.
+	 */
+	EXACT,
+
+	/**
+	 * One parameter per argument, padded to the next power of two by repeating the last argument, so lists of 5 to 8
+	 * arguments share one statement.
+	 */
+	PADDED,
+
+	/**
+	 * All arguments bound as a single array parameter and matched with {@code = any(?)}, which can use an index on
+	 * the column. Only rendered with Hibernate on PostgreSQL, CockroachDB and H2; falls back to {@link #PADDED}
+	 * elsewhere.
+	 */
+	ARRAY;
+
+	/**
+	 * Pads the given arguments to the next power of two by repeating the last one.
+	 *
+	 * @param values the arguments
+	 * @return the padded arguments, or the given list if its size is already a power of two
+	 */
+	static <T> List<T> pad(List<T> values) {
+		int size = values.size();
+		if (size < 2 || Integer.bitCount(size) == 1) {
+			return values;
+		}
+		int paddedSize = Integer.highestOneBit(size) << 1;
+		List<T> padded = new ArrayList<>(paddedSize);
+		padded.addAll(values);
+		T last = values.get(size - 1);
+		while (padded.size() < paddedSize) {
+			padded.add(last);
+		}
+		return padded;
+	}
+
+}
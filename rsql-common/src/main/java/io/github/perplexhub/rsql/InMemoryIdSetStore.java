@@ -0,0 +1,102 @@
+package io.github.perplexhub.rsql;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link IdSetStore} in the heap of the application.<br>
+ * The least recently used id set is evicted once {@code maximumSize} is reached, and id sets not used for
+ * {@code expireAfterAccess} are removed on the next lookup. Handles are random UUIDs.
+ */
+@Slf4j
+public class InMemoryIdSetStore implements IdSetStore {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 100;
+	public static final Duration DEFAULT_EXPIRE_AFTER_ACCESS = Duration.ofMinutes(30);
+
+	private final int maximumSize;
+	private final long expireAfterAccessNanos;
+	private final Map<String, Entry> idSets;
+
+	public InMemoryIdSetStore() {
+		this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_ACCESS);
+	}
+
+	/**
+	 * @param maximumSize       maximum number of stored id sets
+	 * @param expireAfterAccess time after which an unused id set is removed, {@code null} to never expire
+	 */
+	public InMemoryIdSetStore(int maximumSize, Duration expireAfterAccess) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("Maximum size must be positive");
+		}
+		if (expireAfterAccess != null && (expireAfterAccess.isNegative() || expireAfterAccess.isZero())) {
+			throw new IllegalArgumentException("Expire after access must be positive");
+		}
+		this.maximumSize = maximumSize;
+		this.expireAfterAccessNanos = expireAfterAccess != null ? expireAfterAccess.toNanos() : 0;
+		this.idSets = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > InMemoryIdSetStore.this.maximumSize;
+			}
+		};
+	}
+
+	@Override
+	public String put(Collection<?> ids) {
+		IdSet idSet = IdSet.of(ids);
+		String handle = UUID.randomUUID().toString();
+		synchronized (idSets) {
+			idSets.put(handle, new Entry(idSet, System.nanoTime()));
+		}
+		log.debug("Stored {} as [{}]", idSet, handle);
+		return handle;
+	}
+
+	@Override
+	public IdSet get(String handle) {
+		synchronized (idSets) {
+			Entry entry = idSets.get(handle);
+			if (entry == null) {
+				return null;
+			}
+			long now = System.nanoTime();
+			if (expireAfterAccessNanos > 0 && now - entry.accessedAt() > expireAfterAccessNanos) {
+				log.debug("Id set [{}] expired", handle);
+				idSets.remove(handle);
+				return null;
+			}
+			idSets.put(handle, new Entry(entry.idSet(), now));
+			return entry.idSet();
+		}
+	}
+
+	@Override
+	public void remove(String handle) {
+		synchronized (idSets) {
+			idSets.remove(handle);
+		}
+	}
+
+	public int size() {
+		synchronized (idSets) {
+			return idSets.size();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("maximumSize:%d,expireAfterAccess:%s,size:%d", maximumSize,
+				expireAfterAccessNanos > 0 ? Duration.ofNanos(expireAfterAccessNanos) : "-", size());
+	}
+
+	private record Entry(IdSet idSet, long accessedAt) {
+	}
+
+}
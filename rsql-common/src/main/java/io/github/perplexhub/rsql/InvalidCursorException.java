@@ -0,0 +1,30 @@
+package io.github.perplexhub.rsql;
+
+/**
+ * Thrown to indicate that a keyset pagination cursor cannot be decoded, or was created for another sort.
+ */
+public class InvalidCursorException extends RSQLException {
+
+  private final String cursor;
+
+  public InvalidCursorException(String cursor, String message) {
+    super(message);
+
+    this.cursor = cursor;
+  }
+
+  public InvalidCursorException(String cursor, Throwable cause) {
+    super(String.format("Invalid cursor: %s", cursor), cause);
+
+    this.cursor = cursor;
+  }
+
+  /**
+   * Returns the invalid cursor.
+   *
+   * @return the invalid cursor
+   */
+  public String getCursor() {
+    return cursor;
+  }
+}
@@ -0,0 +1,65 @@
+package io.github.perplexhub.rsql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.ManagedType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable index of the managed types of all known entity managers, keyed by Java type.<br>
+ * When a type is managed by several entity managers, the first entity manager in iteration order wins.
+ */
+@Slf4j
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class ManagedTypeIndex {
+
+	static final ManagedTypeIndex EMPTY = new ManagedTypeIndex(Collections.emptyMap());
+
+	private final Map<Class<?>, Entry> entries;
+
+	private ManagedTypeIndex(Map<Class<?>, Entry> entries) {
+		this.entries = entries;
+	}
+
+	static ManagedTypeIndex of(Map<String, EntityManager> entityManagerMap) {
+		Map<Class<?>, Entry> entries = new HashMap<>();
+		for (Map.Entry<String, EntityManager> entityManagerEntry : entityManagerMap.entrySet()) {
+			EntityManager entityManager = entityManagerEntry.getValue();
+			for (ManagedType<?> managedType : entityManager.getMetamodel().getManagedTypes()) {
+				Class<?> javaType = managedType.getJavaType();
+				if (javaType != null) {
+					entries.putIfAbsent(javaType, new Entry(entityManagerEntry.getKey(), entityManager, managedType));
+				}
+			}
+		}
+		log.debug("Indexed {} managed types of EntityManager{} [{}]", entries.size(), entityManagerMap.size() > 1 ? "s" : "", entityManagerMap.keySet());
+		return new ManagedTypeIndex(Collections.unmodifiableMap(entries));
+	}
+
+	/**
+	 * Returns the entry of the given type.
+	 *
+	 * @param type the Java type
+	 * @return the entry, or {@code null} if the type is not managed by any entity manager
+	 */
+	Entry get(Class<?> type) {
+		return entries.get(type);
+	}
+
+	<T> ManagedType<T> getManagedType(Class<T> type) {
+		Entry entry = entries.get(type);
+		return entry != null ? (ManagedType<T>) entry.managedType() : null;
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	record Entry(String entityManagerName, EntityManager entityManager, ManagedType<?> managedType) {
+	}
+
+}
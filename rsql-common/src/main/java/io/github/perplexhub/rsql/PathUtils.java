@@ -1,9 +1,6 @@
 package io.github.perplexhub.rsql;
 
-import org.springframework.util.StringUtils;
-
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
 public class PathUtils {
@@ -13,21 +10,15 @@ public class PathUtils {
     }
 
     /**
-     * If the beginning of the property path is mapped, replace it with the mapped value.
+     * If the beginning of the property path is mapped, replace it with the mapped value.<br>
+     * When several mapped paths match the beginning, the longest one is used.
      *
      * @param path the original property path
      * @param mapping the property path mapper
      * @return the mapped property path
      */
     public static Optional<String> findMappingOnBeginning(String path, Map<String, String> mapping) {
-        if(mapping == null || mapping.isEmpty()) {
-            return Optional.empty();
-        }
-        return mapping.entrySet().stream()
-                .filter(entry -> path.startsWith(entry.getKey()))
-                .filter(entry -> StringUtils.hasText(entry.getValue()))
-                .map(entry -> entry.getValue() + path.substring(entry.getKey().length()))
-                .findFirst();
+        return PropertyPathMapping.of(mapping).findMappingOnBeginning(path);
     }
 
     /**
@@ -38,14 +29,7 @@ public class PathUtils {
      * @return the mapped property path
      */
     public static Optional<String> findMappingOnWhole(String path, Map<String, String> mapping) {
-        if(mapping == null || mapping.isEmpty()) {
-            return Optional.empty();
-        }
-        return mapping.entrySet().stream()
-                .filter(entry -> Objects.equals(path, entry.getKey()))
-                .filter(entry -> StringUtils.hasText(entry.getValue()))
-                .map(Map.Entry::getValue)
-                .findFirst();
+        return PropertyPathMapping.of(mapping).findMappingOnWhole(path);
     }
 
     /**
@@ -57,8 +41,6 @@ public class PathUtils {
      * @return the mapped property path
      */
     public static String expectBestMapping(String path, Map<String, String> mapping) {
-        return findMappingOnWhole(path, mapping)
-                .or(() -> findMappingOnBeginning(path, mapping))
-                .orElse(path);
+        return PropertyPathMapping.of(mapping).expectBestMapping(path);
     }
 }
@@ -0,0 +1,114 @@
+package io.github.perplexhub.rsql;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Compiled property path mapper.<br>
+ * Whole paths are looked up in a hash map and prefixes in a character trie, so both lookups take time proportional to
+ * the length of the path rather than to the number of mappings. When several prefixes match, the longest one wins.
+ */
+final class PropertyPathMapping {
+
+	private static final int MAX_CACHED_MAPPINGS = 256;
+
+	static final PropertyPathMapping EMPTY = new PropertyPathMapping(Map.of());
+
+	private static final Map<Map<String, String>, PropertyPathMapping> mappings = new ConcurrentHashMap<>();
+
+	private final Map<String, String> wholePaths;
+	private final TrieNode prefixes;
+
+	private PropertyPathMapping(Map<String, String> propertyPathMapper) {
+		Map<String, String> wholePaths = new HashMap<>();
+		TrieNode prefixes = new TrieNode();
+		propertyPathMapper.forEach((path, mappedPath) -> {
+			if (path != null && StringUtils.hasText(mappedPath)) {
+				wholePaths.put(path, mappedPath);
+				TrieNode node = prefixes;
+				for (int i = 0; i < path.length(); i++) {
+					node = node.children.computeIfAbsent(path.charAt(i), c -> new TrieNode());
+				}
+				node.mappedPath = mappedPath;
+			}
+		});
+		this.wholePaths = wholePaths;
+		this.prefixes = prefixes;
+	}
+
+	/**
+	 * Returns the compiled form of the given property path mapper.<br>
+	 * Mappers are cached by content, since callers may change a mapper between queries.
+	 *
+	 * @param propertyPathMapper the property path mapper
+	 * @return the compiled mapping
+	 */
+	static PropertyPathMapping of(Map<String, String> propertyPathMapper) {
+		if (propertyPathMapper == null || propertyPathMapper.isEmpty()) {
+			return EMPTY;
+		}
+		PropertyPathMapping mapping = mappings.get(propertyPathMapper);
+		if (mapping == null) {
+			if (mappings.size() >= MAX_CACHED_MAPPINGS) {
+				mappings.clear();
+			}
+			Map<String, String> copy = new HashMap<>(propertyPathMapper);
+			mapping = mappings.computeIfAbsent(copy, PropertyPathMapping::new);
+		}
+		return mapping;
+	}
+
+	static void clear() {
+		mappings.clear();
+	}
+
+	/**
+	 * @see PathUtils#findMappingOnWhole(String, Map)
+	 */
+	Optional<String> findMappingOnWhole(String path) {
+		return Optional.ofNullable(wholePaths.get(path));
+	}
+
+	/**
+	 * @see PathUtils#findMappingOnBeginning(String, Map)
+	 */
+	Optional<String> findMappingOnBeginning(String path) {
+		TrieNode node = prefixes;
+		String mappedPath = node.mappedPath;
+		int length = 0;
+		for (int i = 0; i < path.length(); i++) {
+			node = node.children.get(path.charAt(i));
+			if (node == null) {
+				break;
+			}
+			if (node.mappedPath != null) {
+				mappedPath = node.mappedPath;
+				length = i + 1;
+			}
+		}
+		return mappedPath != null ? Optional.of(mappedPath + path.substring(length)) : Optional.empty();
+	}
+
+	/**
+	 * @see PathUtils#expectBestMapping(String, Map)
+	 */
+	String expectBestMapping(String path) {
+		String mappedPath = wholePaths.get(path);
+		if (mappedPath != null) {
+			return mappedPath;
+		}
+		return findMappingOnBeginning(path).orElse(path);
+	}
+
+	private static final class TrieNode {
+
+		private final Map<Character, TrieNode> children = new HashMap<>(4);
+		private String mappedPath;
+
+	}
+
+}
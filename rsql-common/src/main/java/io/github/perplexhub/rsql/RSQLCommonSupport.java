@@ -2,6 +2,7 @@ package io.github.perplexhub.rsql;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 import jakarta.persistence.EntityManager;
@@ -14,7 +15,8 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 
-import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,9 +28,11 @@ public class RSQLCommonSupport {
 	private @Getter static final Map<Class, ManagedType> managedTypeMap = new ConcurrentHashMap<>();
 	private @Getter static final Map<Class<?>, Map<String, String>> propertyRemapping = new ConcurrentHashMap<>();
 	private @Getter static final Map<Class, Class> valueTypeMap = new ConcurrentHashMap<>();
-	private @Getter static final Map<Class<?>, List<String>> propertyWhitelist = new ConcurrentHashMap<>();
-	private @Getter static final Map<Class<?>, List<String>> propertyBlacklist = new ConcurrentHashMap<>();
+	private @Getter static final Map<Class<?>, List<String>> propertyWhitelist = new AccessRules();
+	private @Getter static final Map<Class<?>, List<String>> propertyBlacklist = new AccessRules();
 	private @Getter static final ConfigurableConversionService conversionService = new DefaultConversionService();
+	private @Getter static volatile RSQLParserCache parserCache = new RSQLParserCache();
+	private @Getter static volatile IdSetStore idSetStore = new InMemoryIdSetStore();
 
 	public RSQLCommonSupport() {
 		init();
@@ -46,6 +50,7 @@ public class RSQLCommonSupport {
 
 	protected void init() {
 		conversionService.removeConvertible(Object.class, Object.class);
+		StringConverters.clear();
 		RSQLVisitorBase.setEntityManagerMap(getEntityManagerMap());
 		RSQLVisitorBase.setManagedTypeMap(getManagedTypeMap());
 		RSQLVisitorBase.setPropertyRemapping(getPropertyRemapping());
@@ -57,16 +62,19 @@ public class RSQLCommonSupport {
 
 	public static void addConverter(Converter<?, ?> converter) {
 		conversionService.addConverter(converter);
+		StringConverters.clear();
 	}
 
 	public static <T> void addConverter(Class<T> targetType, Converter<String, ? extends T> converter) {
 		log.info("Adding entity converter for {}", targetType);
 		conversionService.addConverter(String.class, targetType, converter);
+		StringConverters.clear();
 	}
 
 	public static <T> void removeConverter(Class<T> targetType) {
 		log.info("Removing entity converter for {}", targetType);
 		conversionService.removeConvertible(String.class, targetType);
+		StringConverters.clear();
 	}
 
 	public static void addPropertyWhitelist(Class<?> entityClass, List<String> propertyList) {
@@ -85,11 +93,32 @@ public class RSQLCommonSupport {
 		propertyBlacklist.computeIfAbsent(entityClass, entityClazz -> new ArrayList<>()).add(property);
 	}
 
+	public static void setParserCache(RSQLParserCache parserCache) {
+		log.info("Setting RSQL parser cache {}", parserCache);
+		RSQLCommonSupport.parserCache = parserCache != null ? parserCache : RSQLParserCache.disabled();
+	}
+
+	public static void setIdSetStore(IdSetStore idSetStore) {
+		log.info("Setting id set store {}", idSetStore);
+		RSQLCommonSupport.idSetStore = idSetStore != null ? idSetStore : new InMemoryIdSetStore();
+	}
+
+	/**
+	 * Parses the RSQL query through the shared {@link RSQLParserCache}.
+	 *
+	 * @param rsqlQuery          the RSQL query
+	 * @param supportedOperators the operators the parser accepts
+	 * @return the root node of the query
+	 */
+	public static Node parse(String rsqlQuery, Set<ComparisonOperator> supportedOperators) {
+		return parserCache.parse(rsqlQuery, supportedOperators);
+	}
+
 	public static MultiValueMap<String, String> toMultiValueMap(final String rsqlQuery) {
 		log.debug("toMultiValueMap(rsqlQuery:{})", rsqlQuery);
 		MultiValueMap<String, String> map = CollectionUtils.toMultiValueMap(new HashMap<>());
 		if (StringUtils.hasText(rsqlQuery)) {
-			new RSQLParser(RSQLOperators.supportedOperators()).parse(rsqlQuery).accept(new RSQLSimpleConverter(), map);
+			parse(rsqlQuery, RSQLOperators.supportedOperators()).accept(new RSQLSimpleConverter(), map);
 		}
 		return map;
 	}
@@ -98,7 +127,7 @@ public class RSQLCommonSupport {
 		log.debug("toComplexMultiValueMap(rsqlQuery:{})", rsqlQuery);
 		Map<String, MultiValueMap<String, String>> map = new HashMap<>();
 		if (StringUtils.hasText(rsqlQuery)) {
-			new RSQLParser(RSQLOperators.supportedOperators()).parse(rsqlQuery).accept(new RSQLComplexConverter(), map);
+			parse(rsqlQuery, RSQLOperators.supportedOperators()).accept(new RSQLComplexConverter(), map);
 		}
 		return map;
 	}
@@ -106,11 +135,13 @@ public class RSQLCommonSupport {
 	public static void addMapping(Class<?> entityClass, Map<String, String> mapping) {
 		log.info("Adding entity class mapping for {}", entityClass);
 		propertyRemapping.put(entityClass, mapping);
+		RSQLVisitorBase.propertyRemappingChanged();
 	}
 
 	public static void addMapping(Class<?> entityClass, String selector, String property) {
 		log.info("Adding entity class mapping for {}, selector {} and property {}", entityClass, selector, property);
 		propertyRemapping.computeIfAbsent(entityClass, entityClazz -> new ConcurrentHashMap<>()).put(selector, property);
+		RSQLVisitorBase.propertyRemappingChanged();
 	}
 
 	public static <T> void addEntityAttributeParser(Class<T> valueClass, Function<String, ? extends T> function) {
@@ -138,4 +169,161 @@ public class RSQLCommonSupport {
 		}
 	}
 
+	/**
+	 * Whitelist or blacklist which writes through to its entries and publishes the global access policy again whenever
+	 * it or one of its lists changes. The lists are stored as copies, so a list changed after it was put in is not seen.
+	 */
+	private static final class AccessRules extends AbstractMap<Class<?>, List<String>> {
+
+		private final Map<Class<?>, AccessRuleList> rules = new ConcurrentHashMap<>();
+
+		@Override
+		public List<String> get(Object key) {
+			return rules.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return rules.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return rules.size();
+		}
+
+		@Override
+		public List<String> put(Class<?> key, List<String> value) {
+			List<String> previous = rules.put(key, new AccessRuleList(value));
+			RSQLVisitorBase.globalAccessRulesChanged();
+			return previous;
+		}
+
+		@Override
+		public List<String> remove(Object key) {
+			List<String> previous = rules.remove(key);
+			RSQLVisitorBase.globalAccessRulesChanged();
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			rules.clear();
+			RSQLVisitorBase.globalAccessRulesChanged();
+		}
+
+		/**
+		 * Returns the stored list rather than the computed one, so that changing it writes through.
+		 */
+		@Override
+		public List<String> computeIfAbsent(Class<?> key, Function<? super Class<?>, ? extends List<String>> mappingFunction) {
+			List<String> list = rules.get(key);
+			if (list == null) {
+				List<String> value = mappingFunction.apply(key);
+				if (value != null) {
+					put(key, value);
+					list = rules.get(key);
+				}
+			}
+			return list;
+		}
+
+		@Override
+		public Set<Entry<Class<?>, List<String>>> entrySet() {
+			return new AbstractSet<>() {
+
+				@Override
+				public Iterator<Entry<Class<?>, List<String>>> iterator() {
+					Iterator<Entry<Class<?>, AccessRuleList>> iterator = rules.entrySet().iterator();
+					return new Iterator<>() {
+
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+
+						@Override
+						public Entry<Class<?>, List<String>> next() {
+							Entry<Class<?>, AccessRuleList> entry = iterator.next();
+							return new SimpleEntry<>(entry.getKey(), entry.getValue()) {
+
+								@Override
+								public List<String> setValue(List<String> value) {
+									super.setValue(value);
+									return put(getKey(), value);
+								}
+							};
+						}
+
+						@Override
+						public void remove() {
+							iterator.remove();
+							RSQLVisitorBase.globalAccessRulesChanged();
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return rules.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Property list of {@link AccessRules}, which publishes the global access policy again whenever it changes.
+	 */
+	private static final class AccessRuleList extends AbstractList<String> implements RandomAccess {
+
+		private final List<String> properties;
+
+		AccessRuleList(Collection<String> properties) {
+			this.properties = new CopyOnWriteArrayList<>(properties);
+		}
+
+		@Override
+		public String get(int index) {
+			return properties.get(index);
+		}
+
+		@Override
+		public int size() {
+			return properties.size();
+		}
+
+		@Override
+		public String set(int index, String property) {
+			String previous = properties.set(index, property);
+			RSQLVisitorBase.globalAccessRulesChanged();
+			return previous;
+		}
+
+		@Override
+		public void add(int index, String property) {
+			properties.add(index, property);
+			RSQLVisitorBase.globalAccessRulesChanged();
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends String> addedProperties) {
+			boolean changed = properties.addAll(addedProperties);
+			RSQLVisitorBase.globalAccessRulesChanged();
+			return changed;
+		}
+
+		@Override
+		public String remove(int index) {
+			String previous = properties.remove(index);
+			RSQLVisitorBase.globalAccessRulesChanged();
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			properties.clear();
+			RSQLVisitorBase.globalAccessRulesChanged();
+		}
+	}
+
 }
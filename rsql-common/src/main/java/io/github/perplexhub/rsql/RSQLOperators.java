@@ -25,15 +25,22 @@ public class RSQLOperators {
 			IGNORE_CASE = new ComparisonOperator("=ic=", "=icase="),
 			IGNORE_CASE_LIKE = new ComparisonOperator("=ik=", "=ilike="),
 			IGNORE_CASE_NOT_LIKE = new ComparisonOperator("=ni=", "=inotlike="),
+			STARTS_WITH = new ComparisonOperator("=sw=", "=startswith="),
+			IGNORE_CASE_STARTS_WITH = new ComparisonOperator("=isw=", "=istartswith="),
+			ENDS_WITH = new ComparisonOperator("=ew=", "=endswith="),
+			IGNORE_CASE_ENDS_WITH = new ComparisonOperator("=iew=", "=iendswith="),
 			BETWEEN = new ComparisonOperator("=bt=", "=between=", Arity.nary(2)),
-			NOT_BETWEEN = new ComparisonOperator("=nb=", "=notbetween=", Arity.nary(2));
+			NOT_BETWEEN = new ComparisonOperator("=nb=", "=notbetween=", Arity.nary(2)),
+			IN_SET = new ComparisonOperator("=inset="),
+			NOT_IN_SET = new ComparisonOperator("=outset=");
 
   private static final Set<ComparisonOperator> OPERATORS = Collections.unmodifiableSet(
       new HashSet<>(Arrays.asList(EQUAL, NOT_EQUAL,
           GREATER_THAN, GREATER_THAN_OR_EQUAL,
           LESS_THAN, LESS_THAN_OR_EQUAL, IN, NOT_IN, IS_NULL, NOT_NULL,
           LIKE, NOT_LIKE, IGNORE_CASE, IGNORE_CASE_LIKE, IGNORE_CASE_NOT_LIKE,
-          BETWEEN, NOT_BETWEEN))
+          STARTS_WITH, IGNORE_CASE_STARTS_WITH, ENDS_WITH, IGNORE_CASE_ENDS_WITH,
+          BETWEEN, NOT_BETWEEN, IN_SET, NOT_IN_SET))
   );
 
   public static Set<ComparisonOperator> supportedOperators() {
@@ -0,0 +1,140 @@
+package io.github.perplexhub.rsql;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.ConcurrentLruCache;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of parsed RSQL queries shared by all converters.<br>
+ * Entries are keyed by the query text and the set of supported operators, and hold either the immutable
+ * {@link Node} tree or the exception raised while parsing, so repeated invalid queries are rejected without
+ * being parsed again. The least recently used entry is evicted once {@code maximumSize} is reached, and entries
+ * older than {@code expireAfterWrite} are parsed again on the next lookup.
+ */
+@Slf4j
+public class RSQLParserCache {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	private final int maximumSize;
+	private final long expireAfterWriteNanos;
+	private final ConcurrentLruCache<Key, Entry> cache;
+	private final LongAdder requestCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder failureCount = new LongAdder();
+
+	public RSQLParserCache() {
+		this(DEFAULT_MAXIMUM_SIZE, null);
+	}
+
+	/**
+	 * @param maximumSize      maximum number of cached queries, {@code 0} disables caching
+	 * @param expireAfterWrite time after which a cached query is parsed again, {@code null} to never expire
+	 */
+	public RSQLParserCache(int maximumSize, Duration expireAfterWrite) {
+		if (maximumSize < 0) {
+			throw new IllegalArgumentException("Maximum size must not be negative");
+		}
+		if (expireAfterWrite != null && (expireAfterWrite.isNegative() || expireAfterWrite.isZero())) {
+			throw new IllegalArgumentException("Expire after write must be positive");
+		}
+		this.maximumSize = maximumSize;
+		this.expireAfterWriteNanos = expireAfterWrite != null ? expireAfterWrite.toNanos() : 0;
+		this.cache = new ConcurrentLruCache<>(maximumSize, this::parse);
+	}
+
+	public static RSQLParserCache disabled() {
+		return new RSQLParserCache(0, null);
+	}
+
+	/**
+	 * Returns the parsed tree of the given query, parsing it only if it is not cached yet.
+	 *
+	 * @param rsqlQuery          the RSQL query
+	 * @param supportedOperators the operators the parser accepts
+	 * @return the immutable root node of the query
+	 * @throws cz.jirutka.rsql.parser.RSQLParserException if the query cannot be parsed
+	 */
+	public Node parse(String rsqlQuery, Set<ComparisonOperator> supportedOperators) {
+		requestCount.increment();
+		Key key = new Key(rsqlQuery, supportedOperators);
+		Entry entry = cache.get(key);
+		if (entry.isExpired(expireAfterWriteNanos)) {
+			log.debug("Parsed query [{}] expired", rsqlQuery);
+			cache.remove(key);
+			entry = cache.get(key);
+		}
+		if (entry.failure() != null) {
+			throw entry.failure();
+		}
+		return entry.node();
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	public Stats getStats() {
+		long requests = requestCount.sum();
+		long misses = missCount.sum();
+		return new Stats(Math.max(requests - misses, 0), misses, failureCount.sum(), cache.size(), maximumSize);
+	}
+
+	private Entry parse(Key key) {
+		log.debug("parse(rsqlQuery:{})", key.rsqlQuery());
+		missCount.increment();
+		try {
+			Node node = new RSQLParser(key.supportedOperators()).parse(key.rsqlQuery());
+			return new Entry(node, null, System.nanoTime());
+		} catch (RuntimeException e) {
+			failureCount.increment();
+			return new Entry(null, e, System.nanoTime());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("maximumSize:%d,expireAfterWrite:%s,stats:%s", maximumSize,
+				expireAfterWriteNanos > 0 ? Duration.ofNanos(expireAfterWriteNanos) : "-", getStats());
+	}
+
+	private record Key(String rsqlQuery, Set<ComparisonOperator> supportedOperators) {
+	}
+
+	private record Entry(Node node, RuntimeException failure, long createdAt) {
+
+		boolean isExpired(long expireAfterWriteNanos) {
+			return expireAfterWriteNanos > 0 && System.nanoTime() - createdAt > expireAfterWriteNanos;
+		}
+	}
+
+	/**
+	 * Snapshot of the cache statistics.
+	 *
+	 * @param hitCount     lookups answered from the cache
+	 * @param missCount    lookups that had to parse the query
+	 * @param failureCount parses that failed and were cached as failures
+	 * @param size         current number of cached queries
+	 * @param maximumSize  maximum number of cached queries
+	 */
+	public record Stats(long hitCount, long missCount, long failureCount, int size, int maximumSize) {
+
+		public double hitRate() {
+			long requests = hitCount + missCount;
+			return requests == 0 ? 1.0 : (double) hitCount / requests;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("hits:%d,misses:%d,failures:%d,size:%d/%d", hitCount, missCount, failureCount, size, maximumSize);
+		}
+	}
+
+}
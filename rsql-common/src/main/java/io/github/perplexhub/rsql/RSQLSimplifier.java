@@ -0,0 +1,298 @@
+package io.github.perplexhub.rsql;
+
+import static io.github.perplexhub.rsql.RSQLOperators.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.OrNode;
+
+/**
+ * Rewrites a parsed RSQL query into an equivalent, smaller one before it is converted:
+ * <ul>
+ * <li>nested {@code and} / {@code or} nodes of the same kind are flattened and duplicate terms removed,</li>
+ * <li>{@code a==1,a==2,a=in=(3,4)} becomes {@code a=in=(1,2,3,4)},</li>
+ * <li>{@code a=ge=1;a=le=9} becomes {@code a=bt=(1,9)},</li>
+ * <li>{@code a==1;a==2} and {@code a==1;a!=1} can never match,</li>
+ * <li>{@code (t==1;a==x),(t==1;b==y)} becomes {@code t==1;(a==x,b==y)}, and the reverse for {@code and} of
+ * {@code or} nodes.</li>
+ * </ul>
+ * Rewrites of {@code and} terms only hold for selectors with at most one value per row, so they are applied to the
+ * selectors accepted by the given predicate only, e.g. not to to-many associations or jsonb paths. Arguments are
+ * compared as text: two different arguments are only known to be different values when both are canonical integers,
+ * since e.g. {@code 1.0} and {@code 1}, or {@code a} and {@code A} under a case-insensitive collation, may be equal.
+ */
+public final class RSQLSimplifier {
+
+	private RSQLSimplifier() {
+	}
+
+	/**
+	 * Simplifies the given query with the rewrites that hold for every selector.
+	 *
+	 * @param node the parsed query
+	 * @return the simplified query, or empty if the query can never match
+	 */
+	public static Optional<Node> simplify(Node node) {
+		return simplify(node, selector -> false);
+	}
+
+	/**
+	 * Simplifies the given query.
+	 *
+	 * @param node         the parsed query
+	 * @param singleValued whether a selector has at most one value per row
+	 * @return the simplified query, or empty if the query can never match
+	 */
+	public static Optional<Node> simplify(Node node, Predicate<String> singleValued) {
+		return Optional.ofNullable(simplifyNode(node, singleValued));
+	}
+
+	/**
+	 * @return the simplified node, {@code null} if it can never match
+	 */
+	private static Node simplifyNode(Node node, Predicate<String> singleValued) {
+		if (!(node instanceof LogicalNode logicalNode)) {
+			return node;
+		}
+		boolean and = logicalNode.getOperator() == LogicalOperator.AND;
+		Set<Node> children = new LinkedHashSet<>();
+		for (Node child : logicalNode.getChildren()) {
+			Node simplified = simplifyNode(child, singleValued);
+			if (simplified == null) {
+				if (and) {
+					return null;
+				}
+			} else if (simplified instanceof LogicalNode nested && nested.getOperator() == logicalNode.getOperator()) {
+				children.addAll(nested.getChildren());
+			} else {
+				children.add(simplified);
+			}
+		}
+		List<Node> terms = and ? simplifyAnd(children, singleValued) : simplifyOr(children);
+		if (terms == null || terms.isEmpty()) {
+			return null;
+		}
+		if (terms.size() == 1) {
+			return terms.get(0);
+		}
+		Node factored = factor(logicalNode.getOperator(), terms);
+		if (factored != null) {
+			return simplifyNode(factored, singleValued);
+		}
+		if (terms.equals(logicalNode.getChildren())) {
+			return logicalNode;
+		}
+		return and ? new AndNode(terms) : new OrNode(terms);
+	}
+
+	/**
+	 * Pulls the terms shared by all children out of a logical node: {@code (t;a),(t;b)} becomes {@code t;(a,b)} and
+	 * {@code (t,a);(t,b)} becomes {@code t,(a;b)}. A child made of shared terms only absorbs the others, so
+	 * {@code t,(t;a)} becomes {@code t}.
+	 *
+	 * @return the factored node, {@code null} if the children share no term
+	 */
+	private static Node factor(LogicalOperator operator, List<Node> children) {
+		LogicalOperator inner = operator == LogicalOperator.AND ? LogicalOperator.OR : LogicalOperator.AND;
+		Set<Node> common = new LinkedHashSet<>(operands(children.get(0), inner));
+		for (int i = 1; i < children.size() && !common.isEmpty(); i++) {
+			common.retainAll(operands(children.get(i), inner));
+		}
+		if (common.isEmpty()) {
+			return null;
+		}
+		List<Node> remainders = new ArrayList<>(children.size());
+		for (Node child : children) {
+			List<Node> remainder = new ArrayList<>(operands(child, inner));
+			remainder.removeAll(common);
+			if (remainder.isEmpty()) {
+				return node(inner, new ArrayList<>(common));
+			}
+			remainders.add(node(inner, remainder));
+		}
+		List<Node> terms = new ArrayList<>(common);
+		terms.add(node(operator, remainders));
+		return node(inner, terms);
+	}
+
+	private static List<Node> operands(Node node, LogicalOperator operator) {
+		if (node instanceof LogicalNode logicalNode && logicalNode.getOperator() == operator) {
+			return logicalNode.getChildren();
+		}
+		return List.of(node);
+	}
+
+	private static Node node(LogicalOperator operator, List<Node> children) {
+		if (children.size() == 1) {
+			return children.get(0);
+		}
+		return operator == LogicalOperator.AND ? new AndNode(children) : new OrNode(children);
+	}
+
+	/**
+	 * Merges the equalities and {@code in} lists of each selector into one {@code in} list.
+	 */
+	private static List<Node> simplifyOr(Collection<Node> children) {
+		Map<String, Set<String>> arguments = new HashMap<>();
+		for (Node child : children) {
+			if (isEqualOrIn(child)) {
+				ComparisonNode comparison = (ComparisonNode) child;
+				arguments.computeIfAbsent(comparison.getSelector(), selector -> new LinkedHashSet<>()).addAll(comparison.getArguments());
+			}
+		}
+		List<Node> terms = new ArrayList<>(children.size());
+		for (Node child : children) {
+			if (!isEqualOrIn(child)) {
+				terms.add(child);
+				continue;
+			}
+			ComparisonNode comparison = (ComparisonNode) child;
+			Set<String> selectorArguments = arguments.remove(comparison.getSelector());
+			if (selectorArguments == null) {
+				continue; // merged into the first term of the selector
+			}
+			if (selectorArguments.equals(new HashSet<>(comparison.getArguments()))) {
+				terms.add(comparison);
+			} else {
+				terms.add(new ComparisonNode(IN, comparison.getSelector(), List.copyOf(selectorArguments)));
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * Merges bounds into {@code between} and detects contradictions of single valued selectors.
+	 *
+	 * @return the terms, {@code null} if they can never match
+	 */
+	private static List<Node> simplifyAnd(Collection<Node> children, Predicate<String> singleValued) {
+		Map<String, List<ComparisonNode>> comparisons = new HashMap<>();
+		for (Node child : children) {
+			if (child instanceof ComparisonNode comparison && isSimplifiable(comparison.getOperator())) {
+				comparisons.computeIfAbsent(comparison.getSelector(), selector -> new ArrayList<>()).add(comparison);
+			}
+		}
+		comparisons.values().removeIf(selectorComparisons -> selectorComparisons.size() < 2);
+		comparisons.keySet().removeIf(selector -> !singleValued.test(selector));
+		if (comparisons.isEmpty()) {
+			return new ArrayList<>(children);
+		}
+
+		Map<ComparisonNode, Node> replacements = new HashMap<>();
+		for (List<ComparisonNode> selectorComparisons : comparisons.values()) {
+			if (isContradiction(selectorComparisons)) {
+				return null;
+			}
+			ComparisonNode lowerBound = single(selectorComparisons, GREATER_THAN_OR_EQUAL);
+			ComparisonNode upperBound = single(selectorComparisons, LESS_THAN_OR_EQUAL);
+			if (lowerBound != null && upperBound != null) {
+				ComparisonNode first = selectorComparisons.indexOf(lowerBound) < selectorComparisons.indexOf(upperBound) ? lowerBound : upperBound;
+				replacements.put(first, new ComparisonNode(BETWEEN, first.getSelector(),
+						List.of(lowerBound.getArguments().get(0), upperBound.getArguments().get(0))));
+				replacements.put(first == lowerBound ? upperBound : lowerBound, null);
+			}
+		}
+		List<Node> terms = new ArrayList<>(children.size());
+		for (Node child : children) {
+			if (!replacements.containsKey(child)) {
+				terms.add(child);
+			} else if (replacements.get(child) != null) {
+				terms.add(replacements.get(child));
+			}
+		}
+		return terms;
+	}
+
+	private static boolean isContradiction(List<ComparisonNode> comparisons) {
+		Set<String> allowed = null;
+		Set<String> excluded = new HashSet<>();
+		for (ComparisonNode comparison : comparisons) {
+			ComparisonOperator operator = comparison.getOperator();
+			if (operator.equals(NOT_EQUAL) && isPlain(comparison.getArguments().get(0))) {
+				excluded.add(comparison.getArguments().get(0));
+			} else if (isEqualOrIn(comparison)) {
+				if (allowed == null) {
+					allowed = new HashSet<>(comparison.getArguments());
+				} else if (isCanonicalIntegers(allowed) && isCanonicalIntegers(comparison.getArguments())) {
+					allowed.retainAll(comparison.getArguments());
+				}
+			}
+		}
+		if (allowed == null) {
+			return false;
+		}
+		allowed.removeAll(excluded);
+		return allowed.isEmpty();
+	}
+
+	private static ComparisonNode single(List<ComparisonNode> comparisons, ComparisonOperator operator) {
+		ComparisonNode found = null;
+		for (ComparisonNode comparison : comparisons) {
+			if (comparison.getOperator().equals(operator)) {
+				if (found != null) {
+					return null;
+				}
+				found = comparison;
+			}
+		}
+		return found;
+	}
+
+	private static boolean isSimplifiable(ComparisonOperator operator) {
+		return operator.equals(EQUAL) || operator.equals(NOT_EQUAL) || operator.equals(IN)
+				|| operator.equals(GREATER_THAN_OR_EQUAL) || operator.equals(LESS_THAN_OR_EQUAL);
+	}
+
+	/**
+	 * Whether the node is an equality or {@code in} list whose arguments are compared as they are, i.e. an equality
+	 * without the {@code *} and {@code ^} of like and case-insensitive matching.
+	 */
+	private static boolean isEqualOrIn(Node node) {
+		if (!(node instanceof ComparisonNode comparison)) {
+			return false;
+		}
+		if (comparison.getOperator().equals(IN)) {
+			return true;
+		}
+		return comparison.getOperator().equals(EQUAL) && isPlain(comparison.getArguments().get(0));
+	}
+
+	private static boolean isPlain(String argument) {
+		return !argument.isEmpty() && argument.indexOf('*') < 0 && argument.indexOf('^') < 0;
+	}
+
+	private static boolean isCanonicalIntegers(Collection<String> arguments) {
+		for (String argument : arguments) {
+			if (!isCanonicalInteger(argument)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the argument is an integer without sign, leading zeros or spaces, so two different canonical integers
+	 * are different values of any numeric or string type.
+	 */
+	private static boolean isCanonicalInteger(String argument) {
+		int start = argument.startsWith("-") ? 1 : 0;
+		int length = argument.length() - start;
+		if (length == 0 || length > 18 || (argument.charAt(start) == '0' && (length > 1 || start == 1))) {
+			return false;
+		}
+		for (int i = start; i < argument.length(); i++) {
+			if (argument.charAt(i) < '0' || argument.charAt(i) > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -1,13 +1,12 @@
 package io.github.perplexhub.rsql;
 
 import java.lang.reflect.*;
-import java.sql.Timestamp;
-import java.time.*;
 import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
 import jakarta.persistence.metamodel.ManagedType;
@@ -31,17 +30,24 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class RSQLVisitorBase<R, A> implements RSQLVisitor<R, A> {
 
 	protected static volatile @Setter Map<Class, ManagedType> managedTypeMap;
-	protected static volatile @Setter Map<String, EntityManager> entityManagerMap;
+	protected static volatile Map<String, EntityManager> entityManagerMap;
+	private static volatile ManagedTypeIndex managedTypeIndex;
 	protected static volatile @Setter @Getter Map<EntityManager, Database> entityManagerDatabase = Map.of();
 	protected static final Map<Class, Class> primitiveToWrapper;
-	protected static volatile @Setter Map<Class<?>, Map<String, String>> propertyRemapping;
-	protected static volatile @Setter Map<Class<?>, List<String>> globalPropertyWhitelist;
-	protected static volatile @Setter Map<Class<?>, List<String>> globalPropertyBlacklist;
+	protected static volatile Map<Class<?>, Map<String, String>> propertyRemapping;
+	private static final AtomicInteger propertyRemappingVersion = new AtomicInteger();
+	protected static volatile Map<Class<?>, List<String>> globalPropertyWhitelist;
+	protected static volatile Map<Class<?>, List<String>> globalPropertyBlacklist;
+	private static volatile AccessPolicy globalAccessPolicy = AccessPolicy.EMPTY;
 	protected static volatile @Setter ConfigurableConversionService defaultConversionService;
 
-	protected @Setter Map<Class<?>, List<String>> propertyWhitelist;
+	protected Map<Class<?>, List<String>> propertyWhitelist;
 
-	protected @Setter Map<Class<?>, List<String>> propertyBlacklist;
+	protected Map<Class<?>, List<String>> propertyBlacklist;
+
+	private AccessPolicy accessPolicy;
+
+	private PropertyPathMapping propertyPathMapping;
 
 	protected Map<Class, ManagedType> getManagedTypeMap() {
 		return managedTypeMap != null ? managedTypeMap : Collections.emptyMap();
@@ -51,6 +57,42 @@ public abstract class RSQLVisitorBase<R, A> implements RSQLVisitor<R, A> {
 		return entityManagerMap != null ? entityManagerMap : Collections.emptyMap();
 	}
 
+	public static void setEntityManagerMap(Map<String, EntityManager> entityManagerMap) {
+		RSQLVisitorBase.entityManagerMap = entityManagerMap;
+		managedTypeIndex = null;
+	}
+
+	/**
+	 * Returns the index of the managed types of all entity managers, building it on first use.
+	 */
+	static ManagedTypeIndex getManagedTypeIndex() {
+		ManagedTypeIndex index = managedTypeIndex;
+		if (index == null) {
+			synchronized (RSQLVisitorBase.class) {
+				index = managedTypeIndex;
+				if (index == null) {
+					Map<String, EntityManager> entityManagers = getEntityManagerMap();
+					index = entityManagers.isEmpty() ? ManagedTypeIndex.EMPTY : ManagedTypeIndex.of(entityManagers);
+					if (entityManagers == entityManagerMap || entityManagerMap == null) {
+						managedTypeIndex = index;
+					}
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the entity manager that manages the given type.
+	 *
+	 * @param type the managed Java type
+	 * @return the entity manager, or {@code null} if no entity manager manages the type
+	 */
+	static EntityManager findEntityManager(Class<?> type) {
+		ManagedTypeIndex.Entry entry = getManagedTypeIndex().get(type);
+		return entry != null ? entry.entityManager() : null;
+	}
+
 	public static Database getDatabase(EntityManager entityManager) {
 		return entityManagerDatabase.get(entityManager);
 	}
@@ -70,87 +112,142 @@ public abstract class RSQLVisitorBase<R, A> implements RSQLVisitor<R, A> {
 
 	protected abstract Map<String, String> getPropertyPathMapper();
 
+	/**
+	 * Returns the compiled property path mapper, which is resolved once per converter.
+	 */
+	PropertyPathMapping getPropertyPathMapping() {
+		if (propertyPathMapping == null) {
+			propertyPathMapping = PropertyPathMapping.of(getPropertyPathMapper());
+		}
+		return propertyPathMapping;
+	}
+
 	public Map<Class<?>, Map<String, String>> getPropertyRemapping() {
 		return propertyRemapping != null ? propertyRemapping : Collections.emptyMap();
 	}
 
+	public static void setPropertyRemapping(Map<Class<?>, Map<String, String>> propertyRemapping) {
+		RSQLVisitorBase.propertyRemapping = propertyRemapping;
+		propertyRemappingChanged();
+	}
+
+	/**
+	 * Must be called whenever the global property remapping changes, so that anything derived from it is rebuilt.
+	 */
+	static void propertyRemappingChanged() {
+		propertyRemappingVersion.incrementAndGet();
+	}
+
+	protected static int getPropertyRemappingVersion() {
+		return propertyRemappingVersion.get();
+	}
+
+	public static void setGlobalPropertyWhitelist(Map<Class<?>, List<String>> globalPropertyWhitelist) {
+		RSQLVisitorBase.globalPropertyWhitelist = globalPropertyWhitelist;
+		globalAccessRulesChanged();
+	}
+
+	public static void setGlobalPropertyBlacklist(Map<Class<?>, List<String>> globalPropertyBlacklist) {
+		RSQLVisitorBase.globalPropertyBlacklist = globalPropertyBlacklist;
+		globalAccessRulesChanged();
+	}
+
+	/**
+	 * Must be called whenever the global whitelist or blacklist changes, so that the global access policy is compiled
+	 * and published again.
+	 */
+	static synchronized void globalAccessRulesChanged() {
+		globalAccessPolicy = AccessPolicy.of(globalPropertyWhitelist, globalPropertyBlacklist);
+	}
+
+	public void setPropertyWhitelist(Map<Class<?>, List<String>> propertyWhitelist) {
+		this.propertyWhitelist = propertyWhitelist;
+		this.accessPolicy = null;
+	}
+
+	public void setPropertyBlacklist(Map<Class<?>, List<String>> propertyBlacklist) {
+		this.propertyBlacklist = propertyBlacklist;
+		this.accessPolicy = null;
+	}
+
+	/**
+	 * Sets the access policy compiled from the whitelist and blacklist of the query.
+	 */
+	void setAccessPolicy(AccessPolicy accessPolicy) {
+		this.accessPolicy = accessPolicy;
+	}
+
+	private AccessPolicy getAccessPolicy() {
+		if (accessPolicy == null) {
+			accessPolicy = AccessPolicy.of(propertyWhitelist, propertyBlacklist);
+		}
+		return accessPolicy;
+	}
+
 	protected Object convert(String source, Class targetType) {
 		log.debug("convert(source:{},targetType:{})", source, targetType);
 
-		Object object = null;
 		try {
-			if (defaultConversionService.canConvert(String.class, targetType)) {
-				object = defaultConversionService.convert(source, targetType);
-			} else if (targetType.equals(String.class)) {
-				object = source;
-			} else if (targetType.equals(UUID.class)) {
-				object = UUID.fromString(source);
-			} else if (targetType.equals(Date.class) || targetType.equals(java.sql.Date.class)) {
-				object = java.sql.Date.valueOf(LocalDate.parse(source));
-			} else if (targetType.equals(Timestamp.class)) {
-				Date date = java.sql.Date.valueOf(LocalDate.parse(source));
-				return new Timestamp(date.getTime());
-			} else if (targetType.equals(LocalDate.class)) {
-				object = LocalDate.parse(source);
-			} else if (targetType.equals(LocalDateTime.class)) {
-				object = LocalDateTime.parse(source);
-			} else if (targetType.equals(OffsetDateTime.class)) {
-				object = OffsetDateTime.parse(source);
-			} else if (targetType.equals(ZonedDateTime.class)) {
-				object = ZonedDateTime.parse(source);
-			} else if (targetType.equals(Character.class)) {
-				object = (!StringUtils.hasText(source) ? source.charAt(0) : null);
-			} else if (targetType.equals(boolean.class) || targetType.equals(Boolean.class)) {
-				object = Boolean.valueOf(source);
-			} else if (targetType.isEnum()) {
-				object = Enum.valueOf(targetType, source);
-			} else if (targetType.equals(Instant.class)) {
-				object = Instant.parse(source);
-			} else {
-				Constructor<?> cons = (Constructor<?>) targetType.getConstructor(new Class<?>[] { String.class });
-				object = cons.newInstance(new Object[] { source });
-			}
-
-			return object;
+			return StringConverters.get(targetType, defaultConversionService).apply(source);
 		} catch (Exception ex) {
-			if (targetType.equals(LocalDateTime.class)) {
-				try {
-					return ((LocalDate) convert(source, LocalDate.class)).atStartOfDay();
-				} catch (Exception e) {
-					ex.addSuppressed(e);
-				}
-			}
-
 			log.debug("Parsing [{}] with [{}] causing [{}], add your parser via RSQLSupport.addConverter(Type.class, Type::valueOf)", source, targetType.getName(), ex.getMessage());
 			throw new ConversionException(String.format("Failed to convert %s to %s type", source, targetType.getName()), ex);
 		}
 	}
 
+	/**
+	 * Resolves the id set referenced by {@link RSQLOperators#IN_SET} or {@link RSQLOperators#NOT_IN_SET}.
+	 *
+	 * @param handle     the handle of the id set in the {@link RSQLCommonSupport#getIdSetStore() id set store}
+	 * @param targetType the type of the compared property
+	 * @return the ids converted to the given type
+	 * @throws UnknownIdSetException if the handle is unknown or the id set was evicted
+	 */
+	protected List<Object> resolveIdSet(String handle, Class targetType) {
+		log.debug("resolveIdSet(handle:{},targetType:{})", handle, targetType);
+
+		IdSet idSet = RSQLCommonSupport.getIdSetStore().get(handle);
+		if (idSet == null) {
+			throw new UnknownIdSetException(handle);
+		}
+		try {
+			return Arrays.asList(idSet.toArray(targetType, source -> convert(source, targetType)));
+		} catch (ArithmeticException ex) {
+			log.debug("Converting id set [{}] to [{}] causing [{}]", handle, targetType.getName(), ex.getMessage());
+			throw new ConversionException(String.format("Failed to convert id set %s to %s type", handle, targetType.getName()), ex);
+		}
+	}
+
 	protected void accessControl(Class type, String name) {
 		log.debug("accessControl(type:{},name:{})", type, name);
 
-		if (propertyWhitelist != null && propertyWhitelist.containsKey(type)) {
-			if (!propertyWhitelist.get(type).contains(name)) {
+		AccessPolicy policy = getAccessPolicy();
+		AccessPolicy globalPolicy = globalAccessPolicy;
+
+		Set<String> whitelist = policy.getWhitelist(type);
+		if (whitelist != null) {
+			if (!whitelist.contains(name)) {
 				String msg = "Property " + type.getName() + "." + name + " is not on whitelist";
 				log.debug(msg);
 				throw new PropertyNotWhitelistedException(name, type, msg);
 			}
-		} else if (globalPropertyWhitelist != null && globalPropertyWhitelist.containsKey(type)) {
-			if (!globalPropertyWhitelist.get(type).contains(name)) {
+		} else if ((whitelist = globalPolicy.getWhitelist(type)) != null) {
+			if (!whitelist.contains(name)) {
 				String msg = "Property " + type.getName() + "." + name + " is not on global whitelist";
 				log.debug(msg);
 				throw new PropertyNotWhitelistedException(name, type, msg);
 			}
 		}
 
-		if (propertyBlacklist != null && propertyBlacklist.containsKey(type)) {
-			if (propertyBlacklist.get(type).contains(name)) {
+		Set<String> blacklist = policy.getBlacklist(type);
+		if (blacklist != null) {
+			if (blacklist.contains(name)) {
 				String msg = "Property " + type.getName() + "." + name + " is on blacklist";
 				log.debug(msg);
 				throw new PropertyBlacklistedException(name, type, msg);
 			}
-		} else if (globalPropertyBlacklist != null && globalPropertyBlacklist.containsKey(type)) {
-			if (globalPropertyBlacklist.get(type).contains(name)) {
+		} else if ((blacklist = globalPolicy.getBlacklist(type)) != null) {
+			if (blacklist.contains(name)) {
 				String msg = "Property " + type.getName() + "." + name + " is on global blacklist";
 				log.debug(msg);
 				throw new PropertyBlacklistedException(name, type, msg);
@@ -159,7 +256,7 @@ public abstract class RSQLVisitorBase<R, A> implements RSQLVisitor<R, A> {
 	}
 
 	protected String mapPropertyPath(String propertyPath) {
-		return PathUtils.findMappingOnWhole(propertyPath, getPropertyPathMapper())
+		return getPropertyPathMapping().findMappingOnWhole(propertyPath)
 				.orElse(propertyPath);
 	}
 
@@ -185,48 +282,30 @@ public abstract class RSQLVisitorBase<R, A> implements RSQLVisitor<R, A> {
 		return propertyType;
 	}
 
-	@SneakyThrows(Exception.class)
 	protected <T> ManagedType<T> getManagedType(Class<T> cls) {
-		Exception ex = null;
-		if (getEntityManagerMap().size() > 0) {
-			ManagedType<T> managedType = getManagedTypeMap().get(cls);
-			if (managedType != null) {
-				log.debug("Found managed type [{}] in cache", cls);
-				return managedType;
-			}
-			for (Entry<String, EntityManager> entityManagerEntry : getEntityManagerMap().entrySet()) {
-				try {
-					managedType = entityManagerEntry.getValue().getMetamodel().managedType(cls);
-					getManagedTypeMap().put(cls, managedType);
-					log.debug("Found managed type [{}] in EntityManager [{}]", cls, entityManagerEntry.getKey());
-					return managedType;
-				} catch (Exception e) {
-					if (e != null) {
-						ex = e;
-					}
-					log.debug("[{}] not found in EntityManager [{}] due to [{}]", cls, entityManagerEntry.getKey(), e == null ? "-" : e.getMessage());
-				}
-			}
+		ManagedType<T> managedType = getManagedTypeMap().get(cls);
+		if (managedType == null) {
+			managedType = getManagedTypeIndex().getManagedType(cls);
+		}
+		if (managedType != null) {
+			return managedType;
 		}
 		log.error("[{}] not found in EntityManager{}: [{}]", cls, getEntityManagerMap().size() > 1 ? "s" : "", StringUtils.collectionToCommaDelimitedString(getEntityManagerMap().keySet()));
-		throw ex != null ? ex : new IllegalStateException("No entity manager bean found in application context");
+		if (getEntityManagerMap().isEmpty()) {
+			throw new IllegalStateException("No entity manager bean found in application context");
+		}
+		throw new IllegalArgumentException("Not a managed type: " + cls);
 	}
 
 	protected <T> ManagedType<T> getManagedElementCollectionType(String mappedProperty, ManagedType<T> classMetadata) {
 		try {
 			Class<?> cls = findPropertyType(mappedProperty, classMetadata);
-			if (!cls.isPrimitive() && !primitiveToWrapper.containsValue(cls) && !cls.equals(String.class) && getEntityManagerMap().size() > 0) {
-				ManagedType<T> managedType = getManagedTypeMap().get(cls);
-				if (managedType != null) {
-					log.debug("Found managed type [{}] in cache", cls);
-					return managedType;
-				}
-				for (Entry<String, EntityManager> entityManagerEntry : getEntityManagerMap().entrySet()) {
-					managedType = (ManagedType<T>) entityManagerEntry.getValue().getMetamodel().managedType(cls);
-					getManagedTypeMap().put(cls, managedType);
-					log.info("Found managed type [{}] in EntityManager [{}]", cls, entityManagerEntry.getKey());
-					return managedType;
-				}
+			ManagedType<T> managedType = getManagedTypeMap().get(cls);
+			if (managedType == null) {
+				managedType = (ManagedType<T>) getManagedTypeIndex().getManagedType(cls);
+			}
+			if (managedType != null) {
+				return managedType;
 			}
 		} catch (Exception e) {
 			log.warn("Unable to get the managed type of [{}]", mappedProperty, e);
@@ -242,6 +321,39 @@ public abstract class RSQLVisitorBase<R, A> implements RSQLVisitor<R, A> {
 		}
 	}
 
+	/**
+	 * Whether the given selector resolves to at most one value per row of the given entity, i.e. a basic attribute
+	 * reached through singular associations and embeddables only. Selectors remapped per class, jsonb paths, functions
+	 * and unknown properties are not considered single valued.
+	 *
+	 * @param selector    the RSQL selector
+	 * @param entityClass the queried entity
+	 * @return {@code true} if the selector is single valued
+	 */
+	protected boolean isSingleValued(String selector, Class<?> entityClass) {
+		ManagedType<?> classMetadata = getManagedTypeIndex().getManagedType(entityClass);
+		String[] properties = mapPropertyPath(selector).split("\\.");
+		for (int i = 0; i < properties.length && classMetadata != null; i++) {
+			String property = properties[i];
+			if (!mapProperty(property, classMetadata.getJavaType()).equals(property) || !hasPropertyName(property, classMetadata)) {
+				return false;
+			}
+			Attribute<?, ?> attribute = getAttribute(property, classMetadata);
+			if (attribute.isCollection()) {
+				return false;
+			}
+			if (i == properties.length - 1) {
+				if (attribute.getPersistentAttributeType() != PersistentAttributeType.BASIC) {
+					return false;
+				}
+				accessControl(classMetadata.getJavaType(), property);
+				return true;
+			}
+			classMetadata = getManagedTypeIndex().getManagedType(attribute.getJavaType());
+		}
+		return false;
+	}
+
 	@SneakyThrows
 	protected static Class getElementCollectionGenericType(Class type, Attribute attribute) {
 		Member member = attribute.getJavaMember();
@@ -273,6 +385,20 @@ public abstract class RSQLVisitorBase<R, A> implements RSQLVisitor<R, A> {
 				&& PersistentAttributeType.ONE_TO_ONE == getAttribute(property, classMetadata).getPersistentAttributeType();
 	}
 
+	/**
+	 * Whether the property is a one-to-one association holding the foreign key, i.e. not mapped by the other side, so that
+	 * the id of the associated entity is read without a join.
+	 */
+	protected <T> boolean isOwningOneToOneAssociationType(String property, ManagedType<T> classMetadata) {
+		if (!isOneToOneAssociationType(property, classMetadata)) {
+			return false;
+		}
+		OneToOne oneToOne = getAttribute(property, classMetadata).getJavaMember() instanceof AnnotatedElement element
+				? element.getAnnotation(OneToOne.class)
+				: null;
+		return oneToOne != null && oneToOne.mappedBy().isEmpty();
+	}
+
 	protected <T> boolean isOneToManyAssociationType(String property, ManagedType<T> classMetadata) {
 		return getAttribute(property, classMetadata).isAssociation()
 				&& PersistentAttributeType.ONE_TO_MANY == getAttribute(property, classMetadata).getPersistentAttributeType();
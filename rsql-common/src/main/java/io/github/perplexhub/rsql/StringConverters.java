@@ -0,0 +1,155 @@
+package io.github.perplexhub.rsql;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.util.StringUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Converters of RSQL arguments to attribute values, resolved once per target type.<br>
+ * The cache is bound to the conversion service it was resolved with, and must be cleared whenever converters are
+ * added to or removed from that conversion service.
+ */
+@Slf4j
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class StringConverters {
+
+	private static volatile Cache cache = new Cache(null);
+
+	private StringConverters() {
+	}
+
+	/**
+	 * Returns the converter of the given target type.
+	 *
+	 * @param targetType        the type to convert to
+	 * @param conversionService the conversion service, which takes precedence over the built-in converters
+	 * @return the converter, which may throw a runtime exception if the argument cannot be converted
+	 */
+	static Function<String, Object> get(Class<?> targetType, ConversionService conversionService) {
+		Cache current = cache;
+		if (current.conversionService() != conversionService) {
+			current = new Cache(conversionService);
+			cache = current;
+		}
+		Function<String, Object> converter = current.converters().get(targetType);
+		if (converter == null) {
+			converter = resolve(targetType, conversionService);
+			current.converters().putIfAbsent(targetType, converter);
+		}
+		return converter;
+	}
+
+	static void clear() {
+		cache = new Cache(null);
+	}
+
+	private static Function<String, Object> resolve(Class targetType, ConversionService conversionService) {
+		log.debug("Resolving converter of [{}]", targetType);
+		if (conversionService.canConvert(String.class, targetType)) {
+			Function<String, Object> converter = source -> conversionService.convert(source, targetType);
+			return targetType.equals(LocalDateTime.class) ? orStartOfDay(converter, conversionService) : converter;
+		} else if (targetType.equals(String.class)) {
+			return source -> source;
+		} else if (targetType.equals(UUID.class)) {
+			return UUID::fromString;
+		} else if (targetType.equals(Date.class) || targetType.equals(java.sql.Date.class)) {
+			return source -> java.sql.Date.valueOf(LocalDate.parse(source));
+		} else if (targetType.equals(Timestamp.class)) {
+			return source -> new Timestamp(java.sql.Date.valueOf(LocalDate.parse(source)).getTime());
+		} else if (targetType.equals(LocalDate.class)) {
+			return LocalDate::parse;
+		} else if (targetType.equals(LocalDateTime.class)) {
+			// an ISO local date time always contains the 'T' separator, anything else can only be a date
+			Function<String, Object> startOfDay = startOfDay(conversionService);
+			return source -> source.indexOf('T') >= 0 ? LocalDateTime.parse(source) : startOfDay.apply(source);
+		} else if (targetType.equals(OffsetDateTime.class)) {
+			return OffsetDateTime::parse;
+		} else if (targetType.equals(ZonedDateTime.class)) {
+			return ZonedDateTime::parse;
+		} else if (targetType.equals(Character.class)) {
+			return source -> (!StringUtils.hasText(source) ? source.charAt(0) : null);
+		} else if (targetType.equals(boolean.class) || targetType.equals(Boolean.class)) {
+			return Boolean::valueOf;
+		} else if (targetType.isEnum()) {
+			return enumConverter(targetType);
+		} else if (targetType.equals(Instant.class)) {
+			return Instant::parse;
+		}
+		return constructorConverter(targetType);
+	}
+
+	private static Function<String, Object> orStartOfDay(Function<String, Object> converter, ConversionService conversionService) {
+		Function<String, Object> startOfDay = startOfDay(conversionService);
+		return source -> {
+			try {
+				return converter.apply(source);
+			} catch (RuntimeException e) {
+				try {
+					return startOfDay.apply(source);
+				} catch (RuntimeException suppressed) {
+					e.addSuppressed(suppressed);
+					throw e;
+				}
+			}
+		};
+	}
+
+	private static Function<String, Object> startOfDay(ConversionService conversionService) {
+		// resolved on first use, the cache must not be updated while a converter is being resolved
+		return source -> ((LocalDate) get(LocalDate.class, conversionService).apply(source)).atStartOfDay();
+	}
+
+	private static Function<String, Object> enumConverter(Class<? extends Enum> targetType) {
+		Map<String, Object> constants = new HashMap<>();
+		for (Enum constant : targetType.getEnumConstants()) {
+			constants.put(constant.name(), constant);
+		}
+		return source -> {
+			Object constant = constants.get(source);
+			if (constant == null) {
+				throw new IllegalArgumentException("No enum constant " + targetType.getCanonicalName() + "." + source);
+			}
+			return constant;
+		};
+	}
+
+	private static Function<String, Object> constructorConverter(Class<?> targetType) {
+		MethodHandle constructor;
+		try {
+			constructor = MethodHandles.publicLookup()
+					.findConstructor(targetType, MethodType.methodType(void.class, String.class))
+					.asType(MethodType.methodType(Object.class, String.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return source -> {
+				throw new IllegalArgumentException("No public String constructor in " + targetType.getName(), e);
+			};
+		}
+		return source -> {
+			try {
+				return (Object) constructor.invokeExact(source);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalArgumentException(e);
+			}
+		};
+	}
+
+	private record Cache(ConversionService conversionService, Map<Class<?>, Function<String, Object>> converters) {
+
+		Cache(ConversionService conversionService) {
+			this(conversionService, new ConcurrentHashMap<>());
+		}
+	}
+
+}
@@ -0,0 +1,24 @@
+package io.github.perplexhub.rsql;
+
+/**
+ * Thrown to indicate that RSQL query references an id set which is not (or no longer) in the {@link IdSetStore}.
+ */
+public class UnknownIdSetException extends RSQLException {
+
+  private final String handle;
+
+  public UnknownIdSetException(String handle) {
+    super(String.format("Unknown id set: %s", handle));
+
+    this.handle = handle;
+  }
+
+  /**
+   * Returns the handle of the unknown id set.
+   *
+   * @return the handle of the unknown id set
+   */
+  public String getHandle() {
+    return handle;
+  }
+}
@@ -0,0 +1,19 @@
+package io.github.perplexhub.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InListBindingTest {
+
+  @Test
+  void testPadToPowerOfTwo() {
+    assertThat(InListBinding.pad(List.of())).isEmpty();
+    assertThat(InListBinding.pad(List.of(1))).containsExactly(1);
+    assertThat(InListBinding.pad(List.of(1, 2))).containsExactly(1, 2);
+    assertThat(InListBinding.pad(List.of(1, 2, 3))).containsExactly(1, 2, 3, 3);
+    assertThat(InListBinding.pad(List.of(1, 2, 3, 4, 5))).containsExactly(1, 2, 3, 4, 5, 5, 5, 5);
+    assertThat(InListBinding.pad(List.of(1, 2, 3, 4, 5, 6, 7, 8))).hasSize(8);
+  }
+}
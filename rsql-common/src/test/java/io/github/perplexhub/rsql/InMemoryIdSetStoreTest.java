@@ -0,0 +1,57 @@
+package io.github.perplexhub.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class InMemoryIdSetStoreTest {
+
+  @Test
+  void testEvictsLeastRecentlyUsed() {
+    InMemoryIdSetStore store = new InMemoryIdSetStore(2, null);
+    String first = store.put(List.of(1, 2));
+    String second = store.put(List.of(3));
+    assertThat(store.get(first)).isNotNull();
+
+    String third = store.put(List.of(4));
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.get(second)).isNull();
+    assertThat(store.get(first).size()).isEqualTo(2);
+    assertThat(store.get(third).size()).isEqualTo(1);
+  }
+
+  @Test
+  void testExpiresAfterAccess() throws InterruptedException {
+    InMemoryIdSetStore store = new InMemoryIdSetStore(10, Duration.ofMillis(20));
+    String handle = store.put(List.of(1L));
+    Thread.sleep(50);
+    assertThat(store.get(handle)).isNull();
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  void testToArrayConvertsToPropertyType() {
+    assertThat(IdSet.of(List.of(1, 2L)).toArray(Integer.class, Integer::valueOf)).containsExactly(1, 2);
+    assertThat(IdSet.of(2L, 3L).toArray(String.class, s -> s)).containsExactly("2", "3");
+
+    UUID uuid = UUID.randomUUID();
+    assertThat(IdSet.of(List.of(uuid.toString())).toArray(UUID.class, UUID::fromString)).containsExactly(uuid);
+  }
+
+  @Test
+  void testToArrayRejectsOverflow() {
+    assertThat(IdSet.of(1L, 2L).toArray(Short.class, Short::valueOf)).containsExactly((short) 1, (short) 2);
+    assertThat(IdSet.of(1L, 2L).toArray(Byte.class, Byte::valueOf)).containsExactly((byte) 1, (byte) 2);
+
+    assertThatExceptionOfType(ArithmeticException.class)
+        .isThrownBy(() -> IdSet.of(1L, 1L << 32).toArray(Integer.class, Integer::valueOf));
+    assertThatExceptionOfType(ArithmeticException.class)
+        .isThrownBy(() -> IdSet.of(1L, 65536L).toArray(Short.class, Short::valueOf));
+    assertThatExceptionOfType(ArithmeticException.class)
+        .isThrownBy(() -> IdSet.of(1L, 128L).toArray(Byte.class, Byte::valueOf));
+  }
+}
@@ -0,0 +1,49 @@
+package io.github.perplexhub.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PathUtilsTest {
+
+  @Test
+  void testFindMappingOnWhole() {
+    Map<String, String> mapping = Map.of("a", "x", "a.b", "y", "c", "");
+
+    assertThat(PathUtils.findMappingOnWhole("a.b", mapping)).contains("y");
+    assertThat(PathUtils.findMappingOnWhole("a.b.c", mapping)).isEmpty();
+    assertThat(PathUtils.findMappingOnWhole("c", mapping)).isEmpty();
+    assertThat(PathUtils.findMappingOnWhole("a", null)).isEmpty();
+  }
+
+  @Test
+  void testFindMappingOnBeginningUsesLongestPrefix() {
+    Map<String, String> mapping = Map.of("data", "json", "data.address", "address", "other", " ");
+
+    assertThat(PathUtils.findMappingOnBeginning("data.address.city", mapping)).contains("address.city");
+    assertThat(PathUtils.findMappingOnBeginning("data.name", mapping)).contains("json.name");
+    assertThat(PathUtils.findMappingOnBeginning("dat", mapping)).isEmpty();
+    assertThat(PathUtils.findMappingOnBeginning("other.name", mapping)).isEmpty();
+  }
+
+  @Test
+  void testExpectBestMapping() {
+    Map<String, String> mapping = Map.of("data", "json", "data.address", "address");
+
+    assertThat(PathUtils.expectBestMapping("data.address", mapping)).isEqualTo("address");
+    assertThat(PathUtils.expectBestMapping("data.address.city", mapping)).isEqualTo("address.city");
+    assertThat(PathUtils.expectBestMapping("name", mapping)).isEqualTo("name");
+  }
+
+  @Test
+  void testChangedMappingIsCompiledAgain() {
+    Map<String, String> mapping = new HashMap<>();
+    mapping.put("n", "name");
+    assertThat(PathUtils.expectBestMapping("n", mapping)).isEqualTo("name");
+
+    mapping.put("n", "company.name");
+    assertThat(PathUtils.expectBestMapping("n", mapping)).isEqualTo("company.name");
+  }
+}
@@ -0,0 +1,93 @@
+package io.github.perplexhub.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import cz.jirutka.rsql.parser.RSQLParserException;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+
+class RSQLParserCacheTest {
+
+  @Test
+  void shouldReturnCachedNodeForSameQuery() {
+    var cache = new RSQLParserCache();
+
+    Node first = cache.parse("name==demo;id=gt=1", RSQLOperators.supportedOperators());
+    Node second = cache.parse("name==demo;id=gt=1", RSQLOperators.supportedOperators());
+
+    assertThat(second).isSameAs(first);
+    assertThat(cache.getStats().hitCount()).isEqualTo(1);
+    assertThat(cache.getStats().missCount()).isEqualTo(1);
+    assertThat(cache.getStats().size()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeySeparatelyByOperators() {
+    var cache = new RSQLParserCache();
+    Set<ComparisonOperator> operators = new HashSet<>(RSQLOperators.supportedOperators());
+    operators.add(new ComparisonOperator("=around="));
+
+    Node first = cache.parse("name==demo", RSQLOperators.supportedOperators());
+    Node second = cache.parse("name==demo", operators);
+
+    assertThat(second).isNotSameAs(first).isEqualTo(first);
+    assertThat(cache.getStats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRememberParseFailures() {
+    var cache = new RSQLParserCache();
+
+    assertThatExceptionOfType(RSQLParserException.class)
+        .isThrownBy(() -> cache.parse("name=unknown=demo", RSQLOperators.supportedOperators()));
+    assertThatExceptionOfType(RSQLParserException.class)
+        .isThrownBy(() -> cache.parse("name=unknown=demo", RSQLOperators.supportedOperators()));
+
+    assertThat(cache.getStats().missCount()).isEqualTo(1);
+    assertThat(cache.getStats().failureCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsed() {
+    var cache = new RSQLParserCache(2, null);
+
+    Node first = cache.parse("id==1", RSQLOperators.supportedOperators());
+    cache.parse("id==2", RSQLOperators.supportedOperators());
+    cache.parse("id==1", RSQLOperators.supportedOperators());
+    cache.parse("id==3", RSQLOperators.supportedOperators());
+
+    assertThat(cache.getStats().size()).isEqualTo(2);
+    assertThat(cache.parse("id==1", RSQLOperators.supportedOperators())).isSameAs(first);
+    assertThat(cache.getStats().missCount()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldParseAgainAfterExpiry() throws InterruptedException {
+    var cache = new RSQLParserCache(10, Duration.ofMillis(100));
+
+    Node first = cache.parse("id==1", RSQLOperators.supportedOperators());
+    Thread.sleep(150);
+    Node second = cache.parse("id==1", RSQLOperators.supportedOperators());
+
+    assertThat(second).isNotSameAs(first).isEqualTo(first);
+    assertThat(cache.getStats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotCacheWhenDisabled() {
+    var cache = RSQLParserCache.disabled();
+
+    Node first = cache.parse("id==1", RSQLOperators.supportedOperators());
+    Node second = cache.parse("id==1", RSQLOperators.supportedOperators());
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(cache.getStats().size()).isZero();
+  }
+}
@@ -0,0 +1,97 @@
+package io.github.perplexhub.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.Node;
+
+class RSQLSimplifierTest {
+
+  private static final RSQLParser parser = new RSQLParser(RSQLOperators.supportedOperators());
+
+  private static Node parse(String rsql) {
+    return parser.parse(rsql);
+  }
+
+  private static Node simplify(String rsql, String... singleValued) {
+    return RSQLSimplifier.simplify(parse(rsql), Set.of(singleValued)::contains).orElse(null);
+  }
+
+  @Test
+  void testMergesEqualitiesIntoIn() {
+    assertThat(simplify("status==A,status==B,status==C")).isEqualTo(parse("status=in=(A,B,C)"));
+    assertThat(simplify("a==1,b==2,a=in=(3,1)")).isEqualTo(parse("a=in=(1,3),b==2"));
+    assertThat(simplify("a==1,a==1")).isEqualTo(parse("a==1"));
+    assertThat(simplify("name==Jo*,name==Ann")).isEqualTo(parse("name==Jo*,name==Ann"));
+    assertThat(simplify("(a==1,(a==2,b==1)),a==3")).isEqualTo(parse("a=in=(1,2,3),b==1"));
+  }
+
+  @Test
+  void testMergesBoundsIntoBetween() {
+    assertThat(simplify("age=ge=18;name==x;age=le=65", "age")).isEqualTo(parse("age=bt=(18,65);name==x"));
+    assertThat(simplify("age=le=65;age=ge=18", "age")).isEqualTo(parse("age=bt=(18,65)"));
+    assertThat(simplify("age=ge=18;age=le=65")).isEqualTo(parse("age=ge=18;age=le=65"));
+    assertThat(simplify("age=ge=18;age=ge=20;age=le=65", "age")).isEqualTo(parse("age=ge=18;age=ge=20;age=le=65"));
+  }
+
+  @Test
+  void testRemovesDuplicates() {
+    assertThat(simplify("a==1;b==2;a==1")).isEqualTo(parse("a==1;b==2"));
+    assertThat(simplify("(a==1;b==2),(b==2;a==1),(a==1;b==2)")).isEqualTo(parse("a==1;b==2"));
+  }
+
+  @Test
+  void testDetectsContradictions() {
+    assertThat(simplify("a==1;a==2", "a")).isNull();
+    assertThat(simplify("a=in=(1,2);a=in=(3,4)", "a")).isNull();
+    assertThat(simplify("a==x;a!=x", "a")).isNull();
+    assertThat(simplify("a=in=(x,y);a!=x;a!=y", "a")).isNull();
+    assertThat(simplify("(a==1;a==2),b==3", "a")).isEqualTo(parse("b==3"));
+    assertThat(simplify("(a==1;a==2);b==3", "a")).isNull();
+
+    assertThat(simplify("a==1;a==2")).isEqualTo(parse("a==1;a==2"));
+    assertThat(simplify("a==1;a==01", "a")).isEqualTo(parse("a==1;a==01"));
+    assertThat(simplify("a==x;a==X", "a")).isEqualTo(parse("a==x;a==X"));
+    assertThat(simplify("a==x*;a!=x*", "a")).isEqualTo(parse("a==x*;a!=x*"));
+  }
+
+  @Test
+  void testFactorsSharedTerms() {
+    assertThat(simplify("(tenant==1;a==x),(tenant==1;b==y),(tenant==1;c==z)"))
+        .isEqualTo(parse("tenant==1;(a==x,b==y,c==z)"));
+    assertThat(simplify("(tenant==1,a==x);(b==y,tenant==1)")).isEqualTo(parse("tenant==1,(a==x;b==y)"));
+    assertThat(simplify("(t==1;u==2;a==x),(u==2;t==1;b==y)")).isEqualTo(parse("t==1;u==2;(a==x,b==y)"));
+    assertThat(simplify("t==1,(t==1;a==x)")).isEqualTo(parse("t==1"));
+    assertThat(simplify("(t==1;a==1),(t==1;a==2)")).isEqualTo(parse("t==1;a=in=(1,2)"));
+    assertThat(simplify("(t==1;a==x),(u==1;a==x),b==y")).isEqualTo(parse("(t==1;a==x),(u==1;a==x),b==y"));
+  }
+
+  @Test
+  void testSimplifiedQueryMatchesSameRows() {
+    Random random = new Random(20240101);
+    List<Map<String, Integer>> rows = RandomQueries.rows();
+    for (int i = 0; i < 2000; i++) {
+      Node node = RandomQueries.randomQuery(random);
+      for (boolean singleValued : new boolean[] { true, false }) {
+        Node simplified = RSQLSimplifier.simplify(node, selector -> singleValued).orElse(null);
+        for (Map<String, Integer> row : rows) {
+          boolean expected = Boolean.TRUE.equals(RandomQueries.evaluate(node, row));
+          boolean actual = simplified != null && Boolean.TRUE.equals(RandomQueries.evaluate(simplified, row));
+          assertThat(actual).as("%s -> %s on %s", node, simplified, row).isEqualTo(expected);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testKeepsUnchangedNode() {
+    Node node = parse("a==1;b=gt=2");
+    assertThat(RSQLSimplifier.simplify(node)).containsSame(node);
+  }
+}
@@ -42,6 +42,31 @@ class RSQLVisitorBaseTest {
         .satisfies(e -> assertEquals("Failed to convert abc to java.lang.Integer type", e.getMessage()));
   }
 
+  @Test
+  void testConvertWithStringConstructorAndEnum() {
+    assertThat(unit.convert("10.5", java.math.BigDecimal.class)).isEqualTo(new java.math.BigDecimal("10.5"));
+    assertThat(unit.convert("abc", StringValue.class)).isEqualTo(new StringValue("abc"));
+    assertThat(unit.convert("DAYS", java.util.concurrent.TimeUnit.class)).isEqualTo(java.util.concurrent.TimeUnit.DAYS);
+    assertThatExceptionOfType(ConversionException.class)
+        .isThrownBy(() -> unit.convert("1", IntValue.class));
+  }
+
+  @Test
+  void testCachedConverterReplacedWhenConverterIsAdded() {
+    RSQLVisitorBase.setDefaultConversionService(RSQLCommonSupport.getConversionService());
+    try {
+      assertThat(unit.convert("abc", StringValue.class)).isEqualTo(new StringValue("abc"));
+
+      RSQLCommonSupport.addConverter(StringValue.class, source -> new StringValue(source.toUpperCase()));
+      assertThat(unit.convert("abc", StringValue.class)).isEqualTo(new StringValue("ABC"));
+
+      RSQLCommonSupport.removeConverter(StringValue.class);
+      assertThat(unit.convert("abc", StringValue.class)).isEqualTo(new StringValue("abc"));
+    } finally {
+      RSQLCommonSupport.removeConverter(StringValue.class);
+    }
+  }
+
   @Nested
   class ConvertLocalDateToLocalDateTime {
 
@@ -119,6 +144,12 @@ class RSQLVisitorBaseTest {
     }
   }
 
+  public record IntValue(int value) {
+  }
+
+  public record StringValue(String value) {
+  }
+
   /**
    * Non-final class to spy on it.
    */
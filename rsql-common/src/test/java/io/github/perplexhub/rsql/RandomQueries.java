@@ -0,0 +1,139 @@
+package io.github.perplexhub.rsql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.OrNode;
+
+/**
+ * Random queries over the integer selectors of {@link io.github.perplexhub.rsql.model.User}, with an in-memory
+ * evaluation to compare rewritten queries and database results against.
+ */
+final class RandomQueries {
+
+  static final String[] SELECTORS = { "id", "company.id", "city.id" };
+  private static final String[] VALUES = { "1", "2", "3" };
+  private static final ComparisonOperator[] OPERATORS = { RSQLOperators.EQUAL, RSQLOperators.NOT_EQUAL,
+      RSQLOperators.IN, RSQLOperators.GREATER_THAN_OR_EQUAL, RSQLOperators.LESS_THAN_OR_EQUAL, RSQLOperators.GREATER_THAN };
+
+  private RandomQueries() {
+  }
+
+  /**
+   * Builds a random tree out of a few comparisons, so that the same terms appear in several branches.
+   */
+  static Node randomQuery(Random random) {
+    List<Node> atoms = new ArrayList<>();
+    for (int i = 0; i < 2 + random.nextInt(4); i++) {
+      atoms.add(randomComparison(random));
+    }
+    return randomTree(random, atoms, 3);
+  }
+
+  private static Node randomComparison(Random random) {
+    String selector = SELECTORS[random.nextInt(SELECTORS.length)];
+    ComparisonOperator operator = OPERATORS[random.nextInt(OPERATORS.length)];
+    List<String> arguments = new ArrayList<>(List.of(VALUES[random.nextInt(VALUES.length)]));
+    if (operator.equals(RSQLOperators.IN) && random.nextBoolean()) {
+      arguments.add(VALUES[random.nextInt(VALUES.length)]);
+    }
+    return new ComparisonNode(operator, selector, arguments);
+  }
+
+  private static Node randomTree(Random random, List<Node> atoms, int depth) {
+    if (depth == 0 || random.nextInt(4) == 0) {
+      return atoms.get(random.nextInt(atoms.size()));
+    }
+    List<Node> children = new ArrayList<>();
+    for (int i = 0; i < 2 + random.nextInt(3); i++) {
+      children.add(randomTree(random, atoms, depth - 1));
+    }
+    return random.nextBoolean() ? new AndNode(children) : new OrNode(children);
+  }
+
+  /**
+   * Every combination of the values of the selectors, {@code null} included.
+   */
+  static List<Map<String, Integer>> rows() {
+    List<Map<String, Integer>> rows = new ArrayList<>();
+    rows.add(new HashMap<>());
+    for (String selector : SELECTORS) {
+      List<Map<String, Integer>> extended = new ArrayList<>();
+      for (Map<String, Integer> row : rows) {
+        for (Integer value : Arrays.asList(null, 1, 2, 3)) {
+          Map<String, Integer> copy = new HashMap<>(row);
+          copy.put(selector, value);
+          extended.add(copy);
+        }
+      }
+      rows = extended;
+    }
+    return rows;
+  }
+
+  static String toRsql(Node node) {
+    if (node instanceof LogicalNode logicalNode) {
+      String separator = logicalNode.getOperator() == LogicalOperator.AND ? ";" : ",";
+      return logicalNode.getChildren().stream().map(RandomQueries::toRsql).collect(Collectors.joining(separator, "(", ")"));
+    }
+    ComparisonNode comparison = (ComparisonNode) node;
+    List<String> arguments = comparison.getArguments();
+    String rsql = comparison.getSelector() + comparison.getOperator().getSymbol();
+    return arguments.size() == 1 ? rsql + arguments.get(0) : rsql + "(" + String.join(",", arguments) + ")";
+  }
+
+  /**
+   * Evaluates the query on the given row with the three-valued logic of SQL.
+   *
+   * @return the result, {@code null} if unknown
+   */
+  static Boolean evaluate(Node node, Map<String, Integer> row) {
+    if (node instanceof LogicalNode logicalNode) {
+      boolean and = logicalNode.getOperator() == LogicalOperator.AND;
+      Boolean result = and;
+      for (Node child : logicalNode.getChildren()) {
+        Boolean value = evaluate(child, row);
+        if (value == null) {
+          result = null;
+        } else if (value != and) {
+          return value;
+        }
+      }
+      return result;
+    }
+    ComparisonNode comparison = (ComparisonNode) node;
+    Integer value = row.get(comparison.getSelector());
+    if (value == null) {
+      return null;
+    }
+    List<Integer> arguments = comparison.getArguments().stream().map(Integer::valueOf).toList();
+    ComparisonOperator operator = comparison.getOperator();
+    if (operator.equals(RSQLOperators.EQUAL)) {
+      return value.equals(arguments.get(0));
+    } else if (operator.equals(RSQLOperators.NOT_EQUAL)) {
+      return !value.equals(arguments.get(0));
+    } else if (operator.equals(RSQLOperators.IN)) {
+      return arguments.contains(value);
+    } else if (operator.equals(RSQLOperators.GREATER_THAN_OR_EQUAL)) {
+      return value >= arguments.get(0);
+    } else if (operator.equals(RSQLOperators.LESS_THAN_OR_EQUAL)) {
+      return value <= arguments.get(0);
+    } else if (operator.equals(RSQLOperators.GREATER_THAN)) {
+      return value > arguments.get(0);
+    } else if (operator.equals(RSQLOperators.BETWEEN)) {
+      return value >= arguments.get(0) && value <= arguments.get(1);
+    }
+    throw new IllegalArgumentException("Unknown operator: " + operator);
+  }
+}
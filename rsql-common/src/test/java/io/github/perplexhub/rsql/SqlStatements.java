@@ -0,0 +1,76 @@
+package io.github.perplexhub.rsql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL statements executed by Hibernate, registered with
+ * {@code hibernate.session_factory.statement_inspector} in the test {@code application.properties}.
+ */
+public class SqlStatements implements StatementInspector {
+
+  private static final Pattern JOIN = Pattern.compile("\\bjoin\\b", Pattern.CASE_INSENSITIVE);
+  private static final Pattern LEFT_JOIN = Pattern.compile("\\bleft (outer )?join\\b", Pattern.CASE_INSENSITIVE);
+  private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.add(sql);
+    return sql;
+  }
+
+  public static void clear() {
+    STATEMENTS.clear();
+  }
+
+  public static String first() {
+    synchronized (STATEMENTS) {
+      return STATEMENTS.isEmpty() ? null : STATEMENTS.get(0);
+    }
+  }
+
+  public static String last() {
+    synchronized (STATEMENTS) {
+      return STATEMENTS.isEmpty() ? null : STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+  }
+
+  /**
+   * @return the number of joins of the first statement, e.g. the query whose associations are then fetched
+   */
+  public static long firstJoinCount() {
+    return count(JOIN, first());
+  }
+
+  /**
+   * @return the number of joins of the last statement, including joins of its subqueries
+   */
+  public static long lastJoinCount() {
+    return count(JOIN, last());
+  }
+
+  /**
+   * @return the number of left joins of the last statement, including joins of its subqueries
+   */
+  public static long lastLeftJoinCount() {
+    return count(LEFT_JOIN, last());
+  }
+
+  private static long count(Pattern pattern, String sql) {
+    if (sql == null) {
+      return 0;
+    }
+    long count = 0;
+    Matcher matcher = pattern.matcher(sql);
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+
+}
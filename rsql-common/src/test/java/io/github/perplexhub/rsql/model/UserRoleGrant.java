@@ -0,0 +1,27 @@
+package io.github.perplexhub.rsql.model;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class UserRoleGrant {
+
+	@Id
+	private Integer id;
+
+	@ManyToOne
+	@JoinColumn(name = "grantedUserId", referencedColumnName = "userId")
+	@JoinColumn(name = "grantedRoleId", referencedColumnName = "roleId")
+	private UserRole userRole;
+
+	@OneToOne(optional = true)
+	@JoinColumn(name = "grantorId", referencedColumnName = "id", nullable = true)
+	private User grantor;
+
+}
@@ -0,0 +1,3 @@
+insert into user_role_grant(id, granted_user_id, granted_role_id, grantor_id) values(1, 2, 1, 1);
+insert into user_role_grant(id, granted_user_id, granted_role_id, grantor_id) values(2, 10, 2, 3);
+insert into user_role_grant(id, granted_user_id, granted_role_id, grantor_id) values(3, 11, 2, null);
@@ -27,6 +27,7 @@ import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.internal.SessionFactoryImpl;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -40,13 +41,23 @@ public class RSQLJPAAutoConfiguration {
 
   @Bean
   public RSQLCommonSupport rsqlCommonSupport(Map<String, EntityManager> entityManagerMap,
-      ObjectProvider<EntityManagerDatabase> entityManagerDatabaseProvider) {
+      ObjectProvider<EntityManagerDatabase> entityManagerDatabaseProvider,
+      ObjectProvider<RSQLParserCache> parserCacheProvider,
+      IdSetStore idSetStore) {
     log.info("RSQLJPAAutoConfiguration.rsqlCommonSupport(entityManagerMap:{})", entityManagerMap.size());
     var entityManagerDatabase = entityManagerDatabaseProvider.getIfAvailable(() -> new EntityManagerDatabase(Map.of()));
+    parserCacheProvider.ifAvailable(RSQLCommonSupport::setParserCache);
+    RSQLCommonSupport.setIdSetStore(idSetStore);
 
     return new RSQLJPASupport(entityManagerMap, entityManagerDatabase.value());
   }
 
+  @Bean
+  @ConditionalOnMissingBean
+  public IdSetStore idSetStore() {
+    return new InMemoryIdSetStore();
+  }
+
   @Configuration
   @ConditionalOnClass(SessionImplementor.class)
   static
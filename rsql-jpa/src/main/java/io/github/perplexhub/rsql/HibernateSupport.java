@@ -1,11 +1,23 @@
 package io.github.perplexhub.rsql;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaFunctionRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.hibernate.query.spi.QueryEngine;
+import org.hibernate.query.sqm.internal.SqmCriteriaNodeBuilder;
 import org.hibernate.query.sqm.tree.domain.SqmPath;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
 import org.springframework.util.ClassUtils;
 
 final class HibernateSupport {
@@ -27,15 +39,89 @@ final class HibernateSupport {
   /**
    * Must be guarded with {@linkplain #isHibernatePresent} before invoking.
    */
-  static Predicate ilike(CriteriaBuilder cb, Expression<String> expression, String arg, Character escapeChar) {
+  static Predicate ilike(CriteriaBuilder cb, Expression<String> expression, String pattern, Character escapeChar) {
     var hcb = (HibernateCriteriaBuilder) cb;
-    var pattern = '%' + arg + '%';
 
     return escapeChar != null
         ? hcb.ilike(expression, pattern, escapeChar)
         : hcb.ilike(expression, pattern);
   }
 
+  /**
+   * Returns the value as a parameter bound when the query is executed, or as a literal if the criteria builder is not
+   * Hibernate's. Bound values keep the query structure independent of the value, so that queries which only differ in
+   * their values share a query plan.
+   */
+  static <T> Expression<T> bind(CriteriaBuilder cb, T value) {
+    return isHibernateCriteriaBuilder(cb) ? ((HibernateCriteriaBuilder) cb).value(value) : cb.literal(value);
+  }
+
+  /**
+   * Must be guarded with {@linkplain #isHibernateCriteriaBuilder} before invoking.
+   *
+   * @return whether {@link #inArray} can be rendered for the database of the criteria builder
+   */
+  static boolean supportsInArray(CriteriaBuilder cb) {
+    return supportsInArray(((SqmCriteriaNodeBuilder) cb).getQueryEngine());
+  }
+
+  /**
+   * @return whether {@code rsql_in_array} can be rendered for the database of the entity manager
+   */
+  static boolean supportsInArray(EntityManager entityManager) {
+    if (!isHibernatePresent || entityManager == null) {
+      return false;
+    }
+    try {
+      return supportsInArray(entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getQueryEngine());
+    } catch (PersistenceException e) {
+      return false;
+    }
+  }
+
+  private static boolean supportsInArray(QueryEngine queryEngine) {
+    return queryEngine.getSqmFunctionRegistry().findFunctionDescriptor(RSQLFunctionContributor.IN_ARRAY) != null;
+  }
+
+  /**
+   * Must be guarded with {@linkplain #supportsInArray} before invoking.<br>
+   * Creates {@code expression = any(?)}, the values being bound as a single array parameter.
+   */
+  static <T> Predicate inArray(CriteriaBuilder cb, Expression<T> expression, T[] values) {
+    var hcb = (HibernateCriteriaBuilder) cb;
+    return cb.isTrue(hcb.function(RSQLFunctionContributor.IN_ARRAY, Boolean.class, expression, hcb.value(values)));
+  }
+
+  /**
+   * Must be guarded with {@linkplain #isHibernateCriteriaBuilder} before invoking.<br>
+   * Creates {@code exists (select v from unnest(?) v where v = expression)}, the values being bound as a single array
+   * parameter.
+   */
+  static <T> Predicate existsInArray(CriteriaBuilder cb, Subquery<T> subquery, Expression<T> expression, T[] values) {
+    var hcb = (HibernateCriteriaBuilder) cb;
+    JpaFunctionRoot<T> value = ((JpaSubQuery<T>) subquery).from(hcb.unnestArray(hcb.value(values)));
+    subquery.select(value).where(cb.equal(value, expression));
+    return cb.exists(subquery);
+  }
+
+  /**
+   * Must be guarded with {@linkplain #isHibernateCriteriaBuilder} before invoking.<br>
+   * Creates {@code (e1, e2, ...) > (v1, v2, ...)}, or {@code <} if not {@code greater}.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  static Predicate compareRowValues(CriteriaBuilder cb, List<Expression<?>> expressions, List<Object> values, boolean greater) {
+    var nodeBuilder = (SqmCriteriaNodeBuilder) cb;
+    List<SqmExpression<?>> keys = new ArrayList<>(expressions.size());
+    List<SqmExpression<?>> parameters = new ArrayList<>(values.size());
+    for (int i = 0; i < expressions.size(); i++) {
+      keys.add((SqmExpression<?>) expressions.get(i));
+      parameters.add(nodeBuilder.value(values.get(i), (SqmExpression) keys.get(i)));
+    }
+    Expression left = nodeBuilder.tuple(Object[].class, keys);
+    Expression right = nodeBuilder.tuple(Object[].class, parameters);
+    return greater ? cb.greaterThan(left, right) : cb.lessThan(left, right);
+  }
+
   static boolean isHibernatePath(Path<?> path) {
     return isHibernatePresent && path instanceof SqmPath<?>;
   }
@@ -16,6 +16,18 @@ final class JoinUtils {
         return join == null ? createJoin(root, attribute, joinType) : join;
     }
 
+    /**
+     * Whether the given path or one of its joins joins a to-many association or element collection.
+     */
+    static boolean hasCollectionJoin(final From<?, ?> from) {
+        for (final Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().isCollection() || hasCollectionJoin(join)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static <X, Z> Join<X, ?> createJoin(final From<Z, X> root, final String attribute, final JoinType joinType) {
         return joinType == null ? root.join(attribute) : root.join(attribute, joinType);
     }
@@ -1,6 +1,6 @@
 package io.github.perplexhub.rsql;
 
-import static io.github.perplexhub.rsql.RSQLVisitorBase.getEntityManagerMap;
+import static io.github.perplexhub.rsql.RSQLVisitorBase.findEntityManager;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -13,6 +13,7 @@ import cz.jirutka.rsql.parser.ast.ComparisonNode;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import jakarta.persistence.Column;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.ManagedType;
@@ -62,11 +63,23 @@ final class JsonbSupport {
 
 
     public static ResolvedExpression jsonbPathExistsExpression(CriteriaBuilder builder, ComparisonNode node, Path<?> attrPath, JsonbConfiguration configuration) {
+        return jsonbPathExistsExpression(builder, node, attrPath, configuration, false);
+    }
+
+    /**
+     * Creates the jsonb path expression of the given node.<br>
+     * When parameterized, the json path is bound as a parameter and converted with {@code jsonpath(?)}, so that the
+     * query does not change with the values of the node.
+     */
+    public static ResolvedExpression jsonbPathExistsExpression(CriteriaBuilder builder, ComparisonNode node, Path<?> attrPath, JsonbConfiguration configuration, boolean parameterized) {
         var mayBeInvertedOperator = Optional.ofNullable(NEGATE_OPERATORS.get(node.getOperator()));
         var jsb = new JsonbExpressionBuilder(mayBeInvertedOperator.orElse(node.getOperator()), node.getSelector(), node.getArguments(), configuration);
         var expression = jsb.getJsonPathExpression();
-        return ResolvedExpression.ofJson(builder.function(expression.jsonbFunction, Boolean.class, attrPath,
-                builder.literal(expression.jsonbPath)), mayBeInvertedOperator.isPresent());
+        Expression<?> jsonbPath = parameterized
+                ? builder.function("jsonpath", String.class, HibernateSupport.bind(builder, expression.jsonbPath))
+                : builder.literal(expression.jsonbPath);
+        return ResolvedExpression.ofJson(builder.function(expression.jsonbFunction, Boolean.class, attrPath, jsonbPath),
+                mayBeInvertedOperator.isPresent());
     }
 
     /**
@@ -144,11 +157,7 @@ final class JsonbSupport {
      * @return the database
      */
     private static Optional<Database> getDatabase(Attribute<?, ?> attribute) {
-        return getEntityManagerMap()
-                .values()
-                .stream()
-                .filter(em -> em.getMetamodel().getManagedTypes().contains(attribute.getDeclaringType()))
-                .findFirst()
+        return Optional.ofNullable(findEntityManager(attribute.getDeclaringType().getJavaType()))
                 .map(RSQLVisitorBase::getDatabase);
     }
 }
@@ -0,0 +1,250 @@
+package io.github.perplexhub.rsql;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import org.springframework.orm.jpa.vendor.Database;
+
+import io.github.perplexhub.rsql.SortUtils.SortKey;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keyset (seek) pagination: instead of skipping the rows of the previous pages, the next window is read with a
+ * predicate selecting the rows after the sort key values of the last row, which the cursor encodes.<br>
+ * The sort is completed with the id of the entity, so that every row has a unique position. Sort keys are ordered with
+ * {@code null} as the greatest value on every database, i.e. {@code nulls last} ascending and {@code nulls first}
+ * descending, so that rows with {@code null} keys are neither skipped nor repeated.
+ */
+@Slf4j
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class KeysetUtils {
+
+	private static final byte VERSION = 2;
+	private static final byte NULL = 0, TEXT = 1, DATE = 2, TIMESTAMP = 3;
+	private static final Set<Database> ROW_VALUE_DATABASES = EnumSet.of(Database.POSTGRESQL, Database.H2, Database.HSQL,
+			Database.MYSQL, Database.DB2);
+
+	private KeysetUtils() {
+	}
+
+	/**
+	 * The sort keys are resolved with the joins of the filter, so a path both filtered and sorted on is joined once.
+	 */
+	static <T> KeysetWindow<T> findWindow(EntityManager entityManager, Class<T> entityClass, QuerySupport querySupport,
+			SortSupport sortSupport, String cursor, int size) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<T> root = query.from(entityClass);
+		List<Predicate> predicates = new ArrayList<>();
+		RSQLJPASupport.Filter filter = RSQLJPASupport.toFilter(querySupport, root, query, cb);
+		if (filter.predicate() != null) {
+			predicates.add(filter.predicate());
+		}
+
+		List<SortKey> keys = withTiebreaker(SortUtils.parseSortKeys(sortSupport, root, cb, true, filter.joins()), root);
+		int fingerprint = fingerprint(entityClass, sortSupport.getSortQuery());
+		if (cursor != null) {
+			Object[] values = decode(cursor, fingerprint, keys, new RSQLJPAPredicateConverter(cb, null));
+			predicates.add(after(keys, values, cb, RSQLVisitorBase.getDatabase(entityManager)));
+		}
+
+		List<Selection<?>> selections = new ArrayList<>(keys.size() + 1);
+		selections.add(root);
+		List<Order> orders = new ArrayList<>(keys.size());
+		for (SortKey key : keys) {
+			selections.add(key.expression());
+			orders.add(key.ascending() ? cb.asc(key.expression(), Nulls.LAST) : cb.desc(key.expression(), Nulls.FIRST));
+		}
+		query.multiselect(selections).where(predicates.toArray(Predicate[]::new)).orderBy(orders);
+
+		List<Tuple> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+		boolean hasNext = rows.size() > size;
+		List<T> content = new ArrayList<>(Math.min(rows.size(), size));
+		for (int i = 0; i < rows.size() && i < size; i++) {
+			content.add((T) rows.get(i).get(0));
+		}
+		String nextCursor = null;
+		if (hasNext) {
+			Tuple last = rows.get(size - 1);
+			Object[] values = new Object[keys.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = last.get(i + 1);
+			}
+			nextCursor = encode(fingerprint, values);
+		}
+		return new KeysetWindow<>(content, nextCursor);
+	}
+
+	/**
+	 * Appends the id of the root entity to the sort keys, unless it is sorted by already.
+	 */
+	private static List<SortKey> withTiebreaker(List<SortKey> keys, Root<?> root) {
+		EntityType<?> entityType = root.getModel();
+		if (!entityType.hasSingleIdAttribute()) {
+			throw new RSQLException("Keyset pagination requires an entity with a single id attribute: " + root.getJavaType().getName());
+		}
+		SingularAttribute<?, ?> id = entityType.getId(entityType.getIdType().getJavaType());
+		for (SortKey key : keys) {
+			if (SortUtils.isRootColumn(key.expression(), root) && key.expression() instanceof Path<?> path
+					&& path.getModel() instanceof SingularAttribute<?, ?> attribute && attribute.getName().equals(id.getName())) {
+				return keys;
+			}
+		}
+		List<SortKey> completed = new ArrayList<>(keys);
+		completed.add(new SortKey(root.get(id.getName()), keys.isEmpty() || keys.get(keys.size() - 1).ascending()));
+		return completed;
+	}
+
+	/**
+	 * Selects the rows after the given sort key values: {@code (k1, k2) > (v1, v2)} where row values are supported and
+	 * apply, otherwise {@code k1 > v1 or (k1 = v1 and k2 > v2)} with the comparisons reversed for descending keys and
+	 * {@code null} as the greatest value.
+	 */
+	private static Predicate after(List<SortKey> keys, Object[] values, CriteriaBuilder cb, Database database) {
+		if (keys.size() > 1 && ROW_VALUE_DATABASES.contains(database) && HibernateSupport.isHibernateCriteriaBuilder(cb)
+				&& isRowValueComparable(keys, values)) {
+			log.debug("Seek with row value comparison on {}", database);
+			List<Expression<?>> expressions = keys.stream().<Expression<?>>map(SortKey::expression).toList();
+			return HibernateSupport.compareRowValues(cb, expressions, Arrays.asList(values), keys.get(0).ascending());
+		}
+		List<Predicate> alternatives = new ArrayList<>(keys.size());
+		List<Predicate> equalities = new ArrayList<>(keys.size());
+		for (int i = 0; i < keys.size(); i++) {
+			Expression expression = keys.get(i).expression();
+			Object value = values[i];
+			Predicate after;
+			if (keys.get(i).ascending()) {
+				after = value == null ? null : cb.or(cb.greaterThan(expression, (Comparable) value), cb.isNull(expression));
+			} else {
+				after = value == null ? cb.isNotNull(expression) : cb.lessThan(expression, (Comparable) value);
+			}
+			if (after != null) {
+				List<Predicate> alternative = new ArrayList<>(equalities);
+				alternative.add(after);
+				alternatives.add(alternative.size() == 1 ? after : cb.and(alternative.toArray(Predicate[]::new)));
+			}
+			equalities.add(value == null ? cb.isNull(expression) : cb.equal(expression, value));
+		}
+		return alternatives.isEmpty() ? cb.disjunction() : cb.or(alternatives.toArray(Predicate[]::new));
+	}
+
+	/**
+	 * Row values compare like the sort only if all keys have the same direction and none of them can be {@code null}.
+	 */
+	private static boolean isRowValueComparable(List<SortKey> keys, Object[] values) {
+		for (int i = 0; i < keys.size(); i++) {
+			if (keys.get(i).ascending() != keys.get(0).ascending() || values[i] == null
+					|| !(keys.get(i).expression() instanceof Path<?> path) || isNullable(path)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A path can be {@code null} if any of its segments can: a left join, or an optional attribute reached without a
+	 * join, e.g. {@code city.id} read from the nullable foreign key of an optional {@code city}. An id is only
+	 * {@code null} if its entity is missing.
+	 */
+	private static boolean isNullable(Path<?> path) {
+		for (Path<?> segment = path; !(segment instanceof Root<?>); segment = segment.getParentPath()) {
+			if (segment instanceof Join<?, ?> join) {
+				if (join.getJoinType() != JoinType.INNER) {
+					return true;
+				}
+			} else if (!(segment.getModel() instanceof SingularAttribute<?, ?> attribute)
+					|| (attribute.isOptional() && !attribute.isId())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int fingerprint(Class<?> entityClass, String sortQuery) {
+		CRC32 crc = new CRC32();
+		crc.update((entityClass.getName() + '\n' + sortQuery).getBytes(StandardCharsets.UTF_8));
+		return (int) crc.getValue();
+	}
+
+	static String encode(int fingerprint, Object[] values) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(VERSION);
+			out.writeInt(fingerprint);
+			out.writeShort(values.length);
+			for (Object value : values) {
+				if (value == null) {
+					out.writeByte(NULL);
+				} else if (value instanceof Timestamp timestamp) {
+					out.writeByte(TIMESTAMP);
+					out.writeLong(timestamp.getTime());
+					out.writeInt(timestamp.getNanos());
+				} else if (value instanceof Date date) {
+					out.writeByte(DATE);
+					out.writeLong(date.getTime());
+				} else {
+					out.writeByte(TEXT);
+					byte[] text = (value instanceof Enum<?> constant ? constant.name() : value.toString()).getBytes(StandardCharsets.UTF_8);
+					out.writeInt(text.length);
+					out.write(text);
+				}
+			}
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static Object[] decode(String cursor, int fingerprint, List<SortKey> keys, RSQLVisitorBase<?, ?> converter) {
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)));
+			if (in.readByte() != VERSION || in.readInt() != fingerprint || in.readShort() != keys.size()) {
+				throw new InvalidCursorException(cursor, "Cursor was not created for this sort: " + cursor);
+			}
+			Object[] values = new Object[keys.size()];
+			for (int i = 0; i < values.length; i++) {
+				Class<?> type = keys.get(i).expression().getJavaType();
+				values[i] = switch (in.readByte()) {
+					case NULL -> null;
+					case TIMESTAMP -> timestamp(in.readLong(), in.readInt(), type);
+					case DATE -> type == java.sql.Date.class ? new java.sql.Date(in.readLong()) : new Date(in.readLong());
+					case TEXT -> converter.convert(readText(in), type.isPrimitive() ? RSQLVisitorBase.primitiveToWrapper.get(type) : type);
+					default -> throw new InvalidCursorException(cursor, "Unknown value in cursor: " + cursor);
+				};
+			}
+			if (in.available() > 0) {
+				throw new InvalidCursorException(cursor, "Unknown value in cursor: " + cursor);
+			}
+			return values;
+		} catch (IOException | IllegalArgumentException | ConversionException e) {
+			throw new InvalidCursorException(cursor, e);
+		}
+	}
+
+	private static String readText(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > in.available()) {
+			throw new EOFException("Text length out of range: " + length);
+		}
+		byte[] text = new byte[length];
+		in.readFully(text);
+		return new String(text, StandardCharsets.UTF_8);
+	}
+
+	private static Date timestamp(long time, int nanos, Class<?> type) {
+		Timestamp timestamp = new Timestamp(time);
+		timestamp.setNanos(nanos);
+		return type == java.sql.Date.class ? new java.sql.Date(time) : timestamp;
+	}
+
+}
@@ -0,0 +1,32 @@
+package io.github.perplexhub.rsql;
+
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+
+import lombok.Value;
+
+/**
+ * One window of entities read with keyset pagination, see
+ * {@link RSQLJPASupport#findWindow(Class, QuerySupport, SortSupport, String, int)}.
+ *
+ * @param <T> the entity type
+ */
+@Value
+public class KeysetWindow<T> {
+
+	/**
+	 * The entities of the window, in sort order.
+	 */
+	List<T> content;
+	/**
+	 * The cursor to read the next window with, {@code null} if this is the last window.
+	 */
+	@Nullable
+	String nextCursor;
+
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+
+}
@@ -0,0 +1,74 @@
+package io.github.perplexhub.rsql;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * Compiled procedure whitelist or blacklist.<br>
+ * Entries without regular expression metacharacters are matched with a hash lookup, the others are compiled once into
+ * patterns that must match the whole procedure name.
+ */
+final class ProcedureMatcher {
+
+	static final ProcedureMatcher NONE = new ProcedureMatcher(Set.of(), List.of());
+
+	private static final ConcurrentLruCache<List<String>, ProcedureMatcher> matchers = new ConcurrentLruCache<>(256, ProcedureMatcher::compile);
+
+	private final Set<String> names;
+	private final List<Pattern> patterns;
+
+	private ProcedureMatcher(Set<String> names, List<Pattern> patterns) {
+		this.names = names;
+		this.patterns = patterns;
+	}
+
+	/**
+	 * Returns the compiled form of the given procedure list, cached by content.
+	 *
+	 * @param procedures the procedure names or regular expressions, may be {@code null}
+	 * @return the compiled list, which matches nothing if the list is {@code null} or empty
+	 */
+	static ProcedureMatcher of(Collection<String> procedures) {
+		if (procedures == null || procedures.isEmpty()) {
+			return NONE;
+		}
+		return matchers.get(List.copyOf(procedures));
+	}
+
+	private static ProcedureMatcher compile(List<String> procedures) {
+		Set<String> names = new HashSet<>();
+		List<Pattern> patterns = new ArrayList<>();
+		for (String procedure : procedures) {
+			if (isLiteral(procedure)) {
+				names.add(procedure);
+			} else {
+				patterns.add(Pattern.compile(procedure));
+			}
+		}
+		return new ProcedureMatcher(Set.copyOf(names), List.copyOf(patterns));
+	}
+
+	private static boolean isLiteral(String procedure) {
+		for (int i = 0; i < procedure.length(); i++) {
+			if ("\\^$.|?*+()[]{}".indexOf(procedure.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	boolean matches(String procedure) {
+		if (names.contains(procedure)) {
+			return true;
+		}
+		for (Pattern pattern : patterns) {
+			if (pattern.matcher(procedure).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,134 @@
+package io.github.perplexhub.rsql;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+
+/**
+ * Resolved property path of a selector for a given entity type.<br>
+ * The plan records the {@code get}/{@code join} calls and access control checks made while the selector was first
+ * resolved against the JPA metamodel, so resolving the same selector on another query only replays those calls.
+ */
+final class PropertyPathPlan {
+
+	private static final int MAX_MAPPING_CONFIGS = 256;
+	private static final int MAX_PLANS_PER_MAPPING_CONFIG = 4096;
+
+	private static final Map<MappingConfig, Map<Key, PropertyPathPlan>> plans = new ConcurrentHashMap<>();
+
+	private final List<Step> steps;
+	private final Attribute<?, ?> attribute;
+	private final ManagedType<?> managedType;
+
+	PropertyPathPlan(List<Step> steps, Attribute<?, ?> attribute, ManagedType<?> managedType) {
+		this.steps = List.copyOf(steps);
+		this.attribute = attribute;
+		this.managedType = managedType;
+	}
+
+	RSQLJPAContext apply(RSQLJPAPredicateConverter converter, Path<?> startRoot) {
+		return RSQLJPAContext.of(replay(steps, converter, startRoot), attribute, managedType);
+	}
+
+	private static Path<?> replay(List<Step> steps, RSQLJPAPredicateConverter converter, Path<?> startRoot) {
+		Path<?> path = startRoot;
+		for (Step step : steps) {
+			path = step.apply(converter, startRoot, path);
+		}
+		return path;
+	}
+
+	/**
+	 * Returns the plans resolved with the given mapping configuration.
+	 *
+	 * @param propertyPathMapper the property path mapper of the query
+	 * @param joinHints          the join hints of the query
+	 * @param remappingVersion   the version of the global property remapping
+	 * @return the plans keyed by entity type and selector
+	 */
+	static Map<Key, PropertyPathPlan> plansOf(Map<String, String> propertyPathMapper, Map<String, JoinType> joinHints, int remappingVersion) {
+		MappingConfig mappingConfig = new MappingConfig(propertyPathMapper, joinHints, remappingVersion);
+		Map<Key, PropertyPathPlan> mappingPlans = plans.get(mappingConfig);
+		if (mappingPlans == null) {
+			if (plans.size() >= MAX_MAPPING_CONFIGS) {
+				plans.clear();
+			}
+			mappingPlans = plans.computeIfAbsent(mappingConfig.copy(), config -> new ConcurrentHashMap<>());
+		}
+		return mappingPlans;
+	}
+
+	static void put(Map<Key, PropertyPathPlan> mappingPlans, Key key, PropertyPathPlan plan) {
+		if (mappingPlans.size() >= MAX_PLANS_PER_MAPPING_CONFIG) {
+			mappingPlans.clear();
+		}
+		mappingPlans.put(key, plan);
+	}
+
+	static void clear() {
+		plans.clear();
+	}
+
+	record Key(Class<?> type, String propertyPath) {
+	}
+
+	private record MappingConfig(Map<String, String> propertyPathMapper, Map<String, JoinType> joinHints, int remappingVersion) {
+
+		MappingConfig copy() {
+			return new MappingConfig(Collections.unmodifiableMap(new HashMap<>(propertyPathMapper)),
+					Collections.unmodifiableMap(new HashMap<>(joinHints)), remappingVersion);
+		}
+	}
+
+	sealed interface Step {
+
+		Path<?> apply(RSQLJPAPredicateConverter converter, Path<?> startRoot, Path<?> path);
+
+	}
+
+	record GetStep(String attributeName) implements Step {
+		@Override
+		public Path<?> apply(RSQLJPAPredicateConverter converter, Path<?> startRoot, Path<?> path) {
+			return RSQLJPAPredicateConverter.getPath(path, attributeName);
+		}
+	}
+
+	record JoinStep(String keyJoin, String attributeName, JoinType joinType) implements Step {
+		@Override
+		public Path<?> apply(RSQLJPAPredicateConverter converter, Path<?> startRoot, Path<?> path) {
+			return converter.join(keyJoin, path, attributeName, joinType);
+		}
+	}
+
+	/**
+	 * Property remapped to another path, resolved from the current path.
+	 */
+	record NestedStep(List<Step> steps) implements Step {
+		@Override
+		public Path<?> apply(RSQLJPAPredicateConverter converter, Path<?> startRoot, Path<?> path) {
+			return replay(steps, converter, path);
+		}
+	}
+
+	/**
+	 * Resolution restarted from the start root with the path mapping that matches the beginning of the selector.
+	 */
+	record RestartStep() implements Step {
+		@Override
+		public Path<?> apply(RSQLJPAPredicateConverter converter, Path<?> startRoot, Path<?> path) {
+			return startRoot;
+		}
+	}
+
+	record AccessControlStep(Class<?> type, String attributeName) implements Step {
+		@Override
+		public Path<?> apply(RSQLJPAPredicateConverter converter, Path<?> startRoot, Path<?> path) {
+			converter.accessControl(type, attributeName);
+			return path;
+		}
+	}
+}
@@ -8,21 +8,80 @@ import jakarta.persistence.criteria.JoinType;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Data
 @Builder
 public class QuerySupport {
     private String rsqlQuery;
+    /**
+     * Whether the query is always {@code distinct}. Overrides {@link #autoDistinct}.
+     */
     private boolean distinct;
+    /**
+     * Whether the query is made {@code distinct} only when the RSQL query joins a to-many association or element
+     * collection, i.e. when an entity may be returned once per matching element, instead of paying for
+     * {@code distinct} on every query.
+     */
+    private boolean autoDistinct;
     /**
      * Whether try to interpret {@link RSQLOperators#EQUAL} or {@link RSQLOperators#NOT_EQUAL} operators as
      * {@link RSQLOperators#LIKE}, {@link RSQLOperators#NOT_LIKE} or their case-insensitive variants.
      */
     private boolean strictEquality;
     private Character likeEscapeCharacter;
+    /**
+     * Whether the {@code *} of a {@link RSQLOperators#LIKE}, {@link RSQLOperators#NOT_LIKE} or case-insensitive variant
+     * argument are its wildcards, e.g. {@code name=like=Jo*} as {@code like 'Jo%'}, instead of the argument always being
+     * wrapped in {@code %}. Arguments without {@code *} are still wrapped.
+     */
+    private boolean likeWildcards;
+    /**
+     * Whether static function arguments and jsonb paths are bound as parameters instead of being inlined as literals, so
+     * that queries which only differ in their values share one query plan and one prepared statement.
+     */
+    private boolean parameterized;
+    /**
+     * How the arguments of {@link RSQLOperators#IN} and {@link RSQLOperators#NOT_IN} are bound.
+     */
+    @Builder.Default
+    private InListBinding inListBinding = InListBinding.EXACT;
+    /**
+     * Number of {@link RSQLOperators#IN} or {@link RSQLOperators#NOT_IN} arguments above which the list is matched with
+     * a semi-join against an {@code unnest} array (PostgreSQL, H2, HSQLDB) or split into several {@code in} lists.
+     * Disabled by default. Split lists still bind one parameter per argument.
+     */
+    @Builder.Default
+    private int largeInListThreshold = Integer.MAX_VALUE;
+    /**
+     * Whether the query is simplified by {@link RSQLSimplifier} before it is converted, e.g. equalities of one selector
+     * joined by {@code or} into one {@link RSQLOperators#IN} list, or a query that can never match into
+     * {@code disjunction()}.
+     */
+    private boolean simplify;
+    /**
+     * Whether joins which are left joins by default, i.e. to one-to-one and one-to-many associations, are inner joins
+     * when every comparison on the joined path rejects {@code null}, is joined by {@code and} only and is neither
+     * {@link RSQLOperators#IS_NULL}, a negation nor an equality with an empty argument. Inner joins let the database
+     * reorder joins freely; explicit {@link #joinHints} are kept.<br>
+     * Off by default: the inference only sees the RSQL query, so it changes the results of a specification combined with
+     * other specifications by {@code or}.
+     */
+    private boolean inferInnerJoins;
     private Map<String, String> propertyPathMapper;
     private List<RSQLCustomPredicate<?>> customPredicates;
     private Map<String, JoinType> joinHints;
+    /**
+     * Whether predicates on to-many associations and element collections are matched with a correlated {@code exists}
+     * subquery instead of a join, so that {@link #distinct} is not needed. Predicates on the same collection in one
+     * {@code and} or {@code or} group share a subquery.
+     */
+    private boolean existsSubqueries;
+    /**
+     * To-many associations and element collections matched with a correlated {@code exists} subquery, keyed like
+     * {@link #joinHints}, e.g. {@code User.projects}.
+     */
+    private Set<String> existsHints;
     private Map<Class<?>, List<String>> propertyWhitelist;
     private Map<Class<?>, List<String>> propertyBlacklist;
     private Collection<String> procedureWhiteList;
@@ -34,7 +93,7 @@ public class QuerySupport {
 
     @Override
     public String toString() {
-        return String.format("%s,distinct:%b,propertyPathMapper:%s,customPredicates:%d,joinHints:%s,propertyWhitelist:%s,propertyBlacklist:%s,jsonbConfiguration:%s",
-                rsqlQuery, distinct, propertyPathMapper, customPredicates == null ? 0 : customPredicates.size(), joinHints, propertyWhitelist, propertyBlacklist, jsonbConfiguration);
+        return String.format("%s,distinct:%b,autoDistinct:%b,propertyPathMapper:%s,customPredicates:%d,joinHints:%s,propertyWhitelist:%s,propertyBlacklist:%s,jsonbConfiguration:%s",
+                rsqlQuery, distinct, autoDistinct, propertyPathMapper, customPredicates == null ? 0 : customPredicates.size(), joinHints, propertyWhitelist, propertyBlacklist, jsonbConfiguration);
     }
 }
@@ -0,0 +1,37 @@
+package io.github.perplexhub.rsql;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.CockroachDialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the SQL functions used by the predicate converters with Hibernate. Loaded through
+ * {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class RSQLFunctionContributor implements FunctionContributor {
+
+  /**
+   * {@code rsql_in_array(expression, array)}, rendered as {@code expression = any(array)} so that an index on the
+   * expression can be used. Only registered for databases which bind arrays and support {@code = any}.
+   */
+  static final String IN_ARRAY = "rsql_in_array";
+
+  @Override
+  public void contributeFunctions(FunctionContributions functionContributions) {
+    if (supportsAnyArray(functionContributions.getDialect())) {
+      functionContributions.getFunctionRegistry().patternDescriptorBuilder(IN_ARRAY, "(?1 = any(?2))")
+          .setExactArgumentCount(2)
+          .setInvariantType(functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+          .register();
+    }
+  }
+
+  private static boolean supportsAnyArray(Dialect dialect) {
+    return dialect instanceof PostgreSQLDialect || dialect instanceof CockroachDialect || dialect instanceof H2Dialect;
+  }
+
+}
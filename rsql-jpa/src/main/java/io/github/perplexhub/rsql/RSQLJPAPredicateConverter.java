@@ -3,40 +3,95 @@ package io.github.perplexhub.rsql;
 import static io.github.perplexhub.rsql.RSQLOperators.*;
 
 import cz.jirutka.rsql.parser.ast.LogicalNode;
+import java.lang.reflect.Array;
 import java.util.*;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
 import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
 import jakarta.persistence.metamodel.IdentifiableType;
 import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
 
 import cz.jirutka.rsql.parser.ast.AndNode;
 import cz.jirutka.rsql.parser.ast.ComparisonNode;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.LogicalOperator;
+import cz.jirutka.rsql.parser.ast.Node;
 import cz.jirutka.rsql.parser.ast.OrNode;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.orm.jpa.vendor.Database;
 
 @Slf4j
 @SuppressWarnings({ "rawtypes", "unchecked" })
 public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From> {
 
+	private static final Set<Database> UNNEST_DATABASES = EnumSet.of(Database.POSTGRESQL, Database.H2, Database.HSQL);
+
 	private final CriteriaBuilder builder;
-	private final Map<String, Path> cachedJoins = new HashMap<>();
+	private Map<String, Path> cachedJoins = new HashMap<>();
+	private Map<PropertyPathPlan.Key, PropertyPathPlan> pathPlans;
 	private final @Getter Map<String, String> propertyPathMapper;
 	private final @Getter Map<ComparisonOperator, RSQLCustomPredicate<?>> customPredicates;
 	private final @Getter Map<String, JoinType> joinHints;
-	private final Collection<String> procedureWhiteList;
-	private final Collection<String> procedureBlackList;
+	private final ProcedureMatcher procedureWhiteList;
+	private final ProcedureMatcher procedureBlackList;
 	private final boolean strictEquality;
 	private final Character likeEscapeCharacter;
     private final JsonbConfiguration jsonbConfiguration;
+	/**
+	 * Whether static function arguments and jsonb paths are bound as parameters instead of being inlined as literals.
+	 */
+	private @Setter boolean parameterized;
+	private @Setter InListBinding inListBinding = InListBinding.EXACT;
+	/**
+	 * Number of {@code =in=} / {@code =out=} arguments above which the list is matched with a semi-join against an
+	 * {@code unnest} array or, where arrays are not supported, split into several {@code in} lists.
+	 */
+	private @Setter int largeInListThreshold = Integer.MAX_VALUE;
+	/**
+	 * The query the predicates are created for, which subqueries are attached to.
+	 */
+	private @Setter CommonAbstractCriteria query;
+	/**
+	 * Whether predicates on to-many associations and element collections are matched with a correlated {@code exists}
+	 * subquery instead of a join, so that each entity is returned once.
+	 */
+	private @Setter boolean existsSubqueries;
+	/**
+	 * To-many associations and element collections matched with a correlated {@code exists} subquery, keyed like
+	 * {@link #joinHints}, e.g. {@code User.projects}.
+	 */
+	private @Setter Set<String> existsHints = Set.of();
+	/**
+	 * Joins created as inner instead of left joins by default, keyed like {@link #joinHints}, see
+	 * {@link #inferInnerJoins(Node, Class)}.
+	 */
+	private Set<String> innerJoins = Set.of();
+	/**
+	 * Whether joins without a join hint are created as left joins, e.g. for the fields of a projection, which must not
+	 * drop the rows whose association is {@code null}.
+	 */
+	private @Setter boolean leftJoins;
+	/**
+	 * Whether the {@code *} of a {@link RSQLOperators#LIKE} argument, or one of its variants, are its wildcards, e.g.
+	 * {@code like 'x%'} for {@code x*}, instead of the argument always being wrapped in {@code %}.
+	 */
+	private @Setter boolean likeWildcards;
+	private boolean inSubquery;
+	/**
+	 * Whether a join to a to-many association or element collection was created outside of {@code exists} subqueries,
+	 * so that the query returns an entity once per matching element.
+	 */
+	private @Getter boolean collectionJoined;
 
 	public RSQLJPAPredicateConverter(CriteriaBuilder builder, Map<String, String> propertyPathMapper) {
 		this(builder, propertyPathMapper, null, null);
@@ -78,24 +133,36 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 		this.propertyPathMapper = propertyPathMapper != null ? propertyPathMapper : Collections.emptyMap();
 		this.customPredicates = customPredicates != null ? customPredicates.stream().collect(Collectors.toMap(RSQLCustomPredicate::getOperator, Function.identity(), (a, b) -> a)) : Collections.emptyMap();
 		this.joinHints = joinHints != null ? joinHints : Collections.emptyMap();
-		this.procedureWhiteList = proceduresWhiteList != null ? proceduresWhiteList : Collections.emptyList();
-		this.procedureBlackList = proceduresBlackList != null ? proceduresBlackList : Collections.emptyList();
+		this.procedureWhiteList = ProcedureMatcher.of(proceduresWhiteList);
+		this.procedureBlackList = ProcedureMatcher.of(proceduresBlackList);
 		this.strictEquality = strictEquality;
 		this.likeEscapeCharacter = likeEscapeCharacter;
         this.jsonbConfiguration = jsonbConfiguration;
 	}
 
-	private static <X> Path<X> getPath(Path<X> path, String attribute) {
+	static <X> Path<X> getPath(Path<X> path, String attribute) {
 		return HibernateSupport.isHibernatePath(path)
 				? HibernateSupport.getPathIncludeSubtypes(path, attribute)
 				: path.get(attribute);
 	}
 
 	RSQLJPAContext findPropertyPath(String propertyPath, Path startRoot) {
-        return findPropertyPathInternal(propertyPath, startRoot, true);
+		if (pathPlans == null) {
+			pathPlans = PropertyPathPlan.plansOf(propertyPathMapper, joinHints, getPropertyRemappingVersion());
+		}
+		PropertyPathPlan.Key key = new PropertyPathPlan.Key(startRoot.getJavaType(), propertyPath);
+		PropertyPathPlan plan = pathPlans.get(key);
+		if (plan != null) {
+			log.debug("Replay property path plan for type [{}] property [{}]", key.type(), propertyPath);
+			return plan.apply(this, startRoot);
+		}
+		List<PropertyPathPlan.Step> steps = new ArrayList<>();
+		RSQLJPAContext context = findPropertyPathInternal(propertyPath, startRoot, true, steps);
+		PropertyPathPlan.put(pathPlans, key, new PropertyPathPlan(steps, context.getAttribute(), context.getManagedType()));
+		return context;
 	}
 
-	private RSQLJPAContext findPropertyPathInternal(String propertyPath, Path startRoot, boolean firstTry) {
+	private RSQLJPAContext findPropertyPathInternal(String propertyPath, Path startRoot, boolean firstTry, List<PropertyPathPlan.Step> steps) {
 		Class type = startRoot.getJavaType();
 		ManagedType<?> classMetadata = getManagedType(type);
 		ManagedType<?> previousClassMetadata = null;
@@ -107,23 +174,28 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 			String property = properties[i];
 			String mappedProperty = mapProperty(property, classMetadata.getJavaType());
 			if (!mappedProperty.equals(property)) {
-				RSQLJPAContext context = findPropertyPathInternal(mappedProperty, root, firstTry);
+				List<PropertyPathPlan.Step> nestedSteps = new ArrayList<>();
+				RSQLJPAContext context = findPropertyPathInternal(mappedProperty, root, firstTry, nestedSteps);
+				steps.add(new PropertyPathPlan.NestedStep(nestedSteps));
 				root = context.getPath();
 				attribute = context.getAttribute();
 				classMetadata = context.getManagedType();
 			} else {
 				if (!hasPropertyName(mappedProperty, classMetadata)) {
-					Optional<String> mayBeJSonPath = PathUtils
-							.findMappingOnBeginning(propertyPath, propertyPathMapper);
+					Optional<String> mayBeJSonPath = getPropertyPathMapping()
+							.findMappingOnBeginning(propertyPath);
 					//firstTry check to avoid stack overflow on cyclic mapping
 					if(firstTry && mayBeJSonPath.isPresent()) {
 						//Try with path mapping that matches just the beginning of the expression if json
-						return findPropertyPathInternal(mayBeJSonPath.get(), startRoot, false);
+						steps.add(new PropertyPathPlan.RestartStep());
+						return findPropertyPathInternal(mayBeJSonPath.get(), startRoot, false, steps);
 					}
 					throw new UnknownPropertyException(mappedProperty, classMetadata.getJavaType());
 				}
 				if (isAssociationType(mappedProperty, classMetadata) && !property.equals(resolvedPropertyPath)) {
-					boolean isOneToAssociationType = isOneToOneAssociationType(mappedProperty, classMetadata) || isOneToManyAssociationType(mappedProperty, classMetadata);
+					boolean isOneToOneAssociationType = isOneToOneAssociationType(mappedProperty, classMetadata);
+					boolean isOneToAssociationType = isOneToManyAssociationType(mappedProperty, classMetadata)
+							|| (isOneToOneAssociationType && !isOwningOneToOneAssociationType(mappedProperty, classMetadata));
 					Class<?> associationType = findPropertyType(mappedProperty, classMetadata);
 					type = associationType;
 					String previousClass = classMetadata.getJavaType().getName();
@@ -134,10 +206,10 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 				if (isOneToAssociationType) {
 					if (joinHints.containsKey(keyJoin)) {
 						log.debug("Create a join between [{}] and [{}] using key [{}] with supplied hints", previousClass, classMetadata.getJavaType().getName(), keyJoin);
-						root = join(keyJoin, root, mappedProperty, joinHints.get(keyJoin));
+						root = join(steps, keyJoin, root, mappedProperty, joinHints.get(keyJoin));
 					} else {
 						log.debug("Create a join between [{}] and [{}] using key [{}]", previousClass, classMetadata.getJavaType().getName(), keyJoin);
-						root = join(keyJoin, root, mappedProperty, JoinType.LEFT);
+						root = join(steps, keyJoin, root, mappedProperty, JoinType.LEFT);
 					}
 				} else {
 					String lookAheadProperty = i < propertiesLength - 1 ? properties[i + 1] : null;
@@ -151,10 +223,10 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 					}
 					if (lookAheadPropertyIsId || lookAheadProperty == null) {
 						log.debug("Create property path for type [{}] property [{}]", classMetadata.getJavaType().getName(), mappedProperty);
-						root = getPath(root, mappedProperty);
+						root = get(steps, root, mappedProperty);
 					} else {
 						log.debug("Create a join between [{}] and [{}] using key [{}]", previousClass, classMetadata.getJavaType().getName(), keyJoin);
-						root = join(keyJoin, root, mappedProperty, joinHints.get(keyJoin));
+						root = join(steps, keyJoin, root, mappedProperty, joinHints.getOrDefault(keyJoin, isOneToOneAssociationType ? JoinType.LEFT : null));
 					}
 			  	}
 			} else if (isElementCollectionType(mappedProperty, classMetadata)) {
@@ -163,9 +235,9 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 					classMetadata = getManagedElementCollectionType(mappedProperty, classMetadata);
 					String keyJoin = getKeyJoin(root, mappedProperty);
 					log.debug("Create a element collection join between [{}] and [{}] using key [{}]", previousClass, classMetadata.getJavaType().getName(), keyJoin);
-					root = join(keyJoin, root, mappedProperty, joinHints.get(keyJoin));
+					root = join(steps, keyJoin, root, mappedProperty, joinHints.get(keyJoin));
 				} else if (JsonbSupport.isJsonType(mappedProperty, classMetadata)) {
-					root = getPath(root, mappedProperty);
+					root = get(steps, root, mappedProperty);
 					attribute = RSQLVisitorBase.getAttribute(mappedProperty, classMetadata);
 					break;
 				} else if (isEmbeddedType(mappedProperty, classMetadata)) {
@@ -174,27 +246,52 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 					Class<?> embeddedType = findPropertyType(mappedProperty, classMetadata);
 					type = embeddedType;
 					classMetadata = getManagedType(embeddedType);
-					log.debug("Create a embedded join between [{}] and [{}] using key [{}]", previousClass, classMetadata.getJavaType().getName(), keyJoin);
-					root = join(keyJoin, root, mappedProperty, null);
+					if (root instanceof From) {
+						log.debug("Create a embedded join between [{}] and [{}] using key [{}]", previousClass, classMetadata.getJavaType().getName(), keyJoin);
+						root = join(steps, keyJoin, root, mappedProperty, null);
+					} else {
+						// e.g. the embedded id of an association, which is read from the foreign key
+						log.debug("Create property path for type [{}] property [{}]", previousClass, mappedProperty);
+						root = get(steps, root, mappedProperty);
+					}
 				} else {
 					log.debug("Create property path for type [{}] property [{}]", classMetadata.getJavaType().getName(), mappedProperty);
-					root = getPath(root, mappedProperty);
+					root = get(steps, root, mappedProperty);
 					attribute = RSQLVisitorBase.getAttribute(property, classMetadata);
 				}
 			}
 		}
 
 		if (attribute != null) {
+			steps.add(new PropertyPathPlan.AccessControlStep(type, attribute.getName()));
 			accessControl(type, attribute.getName());
 		}
 
 		return RSQLJPAContext.of(root, attribute, classMetadata);
 	}
 
+	private Path<?> get(List<PropertyPathPlan.Step> steps, Path<?> root, String mappedProperty) {
+		steps.add(new PropertyPathPlan.GetStep(mappedProperty));
+		return getPath(root, mappedProperty);
+	}
+
+	private Path<?> join(List<PropertyPathPlan.Step> steps, String keyJoin, Path<?> root, String mappedProperty, JoinType joinType) {
+		steps.add(new PropertyPathPlan.JoinStep(keyJoin, mappedProperty, joinType));
+		return join(keyJoin, root, mappedProperty, joinType);
+	}
+
 	private String getKeyJoin(Path<?> root, String mappedProperty) {
 		return root.getJavaType().getSimpleName().concat(".").concat(mappedProperty);
 	}
 
+	/**
+	 * Resolves joins through the joins of the given converter, so that a path joined by both, e.g. by the filter and
+	 * the sort of one query, is joined once.
+	 */
+	void shareJoins(RSQLJPAPredicateConverter other) {
+		cachedJoins = other.cachedJoins;
+	}
+
 	protected Path<?> join(String keyJoin, Path<?> root, String mappedProperty) {
 		return join(keyJoin, root, mappedProperty, null);
 	}
@@ -202,18 +299,31 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 	protected Path<?> join(String keyJoin, Path<?> root, String mappedProperty, JoinType joinType) {
 		log.debug("join(keyJoin:{},root:{},mappedProperty:{},joinType:{})", keyJoin, root, mappedProperty, joinType);
 
+		if (joinType == null && leftJoins) {
+			joinType = JoinType.LEFT;
+		}
+		if (joinType == JoinType.LEFT && innerJoins.contains(keyJoin) && !joinHints.containsKey(keyJoin)) {
+			log.debug("Join [{}] is only referenced by null-rejecting predicates, inner join", keyJoin);
+			joinType = JoinType.INNER;
+		}
 		if (cachedJoins.containsKey(keyJoin)) {
 			root = cachedJoins.get(keyJoin);
 		} else {
 			root = JoinUtils.getOrCreateJoin((From) root, mappedProperty, joinType);
 			cachedJoins.put(keyJoin, root);
 		}
+		if (!inSubquery && ((Join<?, ?>) root).getAttribute().isCollection()) {
+			collectionJoined = true;
+		}
 		return root;
 	}
 
 	@Override
 	public Predicate visit(ComparisonNode node, From root) {
 		log.debug("visit(node:{},root:{})", node, root);
+		if (isExistsEnabled(root) && collectionOf(node, root) != null) {
+			return exists(List.of(node), LogicalOperator.AND, root);
+		}
 
 		ComparisonOperator op = node.getOperator();
 		if (customPredicates.containsKey(op)) {
@@ -227,7 +337,7 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 				holder.getAttribute(), arguments, root));
 		}
 
-		Selector selector = Selector.selectorOf(node.getSelector(), builder);
+		Selector selector = Selector.selectorOf(node.getSelector());
 		Selector.assertWhiteListed(selector, procedureWhiteList);
 		Selector.assertNotBlackListed(selector, procedureBlackList);
 
@@ -237,7 +347,7 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 		if(resolvedExpression instanceof ResolvedExpression.JsonbPathExpression jsonbPathExpression) {
 			return jsonPredicate(jsonbPathExpression);
 		} else if (resolvedExpression instanceof ResolvedExpression.PathExpression pathExpression) {
-			return expressionPredicate(node, pathExpression);
+			return expressionPredicate(node, root, pathExpression);
 		} else {
 			throw new IllegalArgumentException("Unknown resolved expression type: " + resolvedExpression.getClass());
 		}
@@ -260,11 +370,11 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 			var path = holder.getPath();
 			var type = path.getJavaType() != null ? path.getJavaType() : attribute.getJavaType();
 			if(JsonbSupport.isJsonType(attribute)) {
-				String jsonSelector = PathUtils.expectBestMapping(node.getSelector(), propertyPathMapper);
+				String jsonSelector = getPropertyPathMapping().expectBestMapping(node.getSelector());
 				String jsonbPath = JsonbSupport.jsonPathOfSelector(attribute, jsonSelector);
 				if(jsonbPath.contains(".")) {
 					ComparisonNode jsonbNode = node.withSelector(jsonbPath);
-					return JsonbSupport.jsonbPathExistsExpression(builder, jsonbNode, path, jsonbConfiguration);
+					return JsonbSupport.jsonbPathExistsExpression(builder, jsonbNode, path, jsonbConfiguration, parameterized);
 				} else {
 					final Expression expression;
 					if (path instanceof JpaExpression jpaExpression) {
@@ -279,22 +389,47 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 					&& attribute.getPersistentAttributeType() == PersistentAttributeType.ELEMENT_COLLECTION) {
 					type = getElementCollectionGenericType(type, attribute);
 				}
+				SingularAttribute<?, ?> id = foreignKeyIdOf(type);
+				if (id != null) {
+					log.debug("Compare [{}] by its id [{}]", node.getSelector(), id.getName());
+					path = path.get(id.getName());
+					type = id.getJavaType();
+				}
 				if (type.isPrimitive()) {
 					type = primitiveToWrapper.get(type);
 				} else if (RSQLJPASupport.getValueTypeMap().containsKey(type)) {
 					type = RSQLJPASupport.getValueTypeMap().get(type); // if you want to treat Enum as String and apply like search, etc
 				}
-				return ResolvedExpression.ofPath(holder.getPath(), type);
+				return ResolvedExpression.ofPath(path, type);
 			}
 
 		} else if(selector instanceof Selector.FunctionSelector) {
-			var expression = selector.getExpression((column, criteriaBuilder) -> findPropertyPath(column, root).getPath());
+			var expression = selector.getExpression(builder, (column, criteriaBuilder) -> findPropertyPath(column, root).getPath(), parameterized);
 			return ResolvedExpression.ofPath(expression, Object.class);
 		} else {
 			throw new IllegalArgumentException("Unknown selector type: " + selector.getClass());
 		}
 	}
 
+	/**
+	 * Returns the id of an entity compared by a selector ending at an association, e.g. {@code company==1}, so that the
+	 * arguments are converted to the id type and compared with the foreign key column of a to-one association without a
+	 * join.
+	 *
+	 * @param type the type of the compared path
+	 * @return the single basic id of the entity, {@code null} if the type is no entity, has a composite id or arguments
+	 * are converted to it with a registered converter
+	 */
+	private SingularAttribute<?, ?> foreignKeyIdOf(Class<?> type) {
+		if (!(getManagedTypeIndex().getManagedType(type) instanceof IdentifiableType<?> identifiableType)
+				|| !identifiableType.hasSingleIdAttribute()
+				|| identifiableType.getIdType().getPersistenceType() != Type.PersistenceType.BASIC
+				|| (defaultConversionService != null && defaultConversionService.canConvert(String.class, type))) {
+			return null;
+		}
+		return identifiableType.getId(identifiableType.getIdType().getJavaType());
+	}
+
 	/**
 	 * Transform the given JsonbPathExpression into a {@link Predicate}
 	 *
@@ -309,28 +444,85 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 		}
 	}
 
+	private Predicate inPredicate(Expression expression, Class type, List<Object> values, From root, boolean negate) {
+		return inPredicate(expression, type, values, root, negate, inListBinding);
+	}
+
+	/**
+	 * Creates the {@code in} or {@code not in} predicate of the given arguments, bound according to the given
+	 * {@link InListBinding}, or matched as a large list above {@link #largeInListThreshold}.
+	 */
+	private Predicate inPredicate(Expression expression, Class type, List<Object> values, From root, boolean negate, InListBinding inListBinding) {
+		if (values.size() > largeInListThreshold) {
+			return largeInPredicate(expression, type, values, root, negate);
+		}
+		Predicate predicate;
+		if (inListBinding == InListBinding.ARRAY && type != Object.class && !type.isPrimitive()
+				&& HibernateSupport.isHibernateCriteriaBuilder(builder) && HibernateSupport.supportsInArray(builder)) {
+			Object[] array = (Object[]) Array.newInstance(type, values.size());
+			predicate = HibernateSupport.inArray(builder, expression, values.toArray(array));
+		} else if (inListBinding == InListBinding.PADDED || inListBinding == InListBinding.ARRAY) {
+			predicate = expression.in(InListBinding.pad(values));
+		} else {
+			predicate = expression.in(values);
+		}
+		return negate ? predicate.not() : predicate;
+	}
+
+	/**
+	 * Matches a large list without one parameter per argument where the database can bind arrays:
+	 * {@code exists (select v from unnest(?) v where v = expression)}, or {@code not exists} for {@code =out=}. Other
+	 * databases, or a converter without a query to attach the subquery to, get the list split into {@code in} lists of
+	 * at most {@link #largeInListThreshold} arguments. Splitting keeps each list under the database limit, but still
+	 * binds one parameter per argument.
+	 */
+	private Predicate largeInPredicate(Expression expression, Class type, List<Object> values, From root, boolean negate) {
+		EntityManager entityManager = findEntityManager(root.getJavaType());
+		Database database = entityManager != null ? getDatabase(entityManager) : null;
+		if (query != null && type != Object.class && UNNEST_DATABASES.contains(database) && HibernateSupport.isHibernateCriteriaBuilder(builder)) {
+			log.debug("Match {} arguments with unnest on {}", values.size(), database);
+			Subquery subquery = query.subquery(type);
+			Object[] array = values.toArray((Object[]) Array.newInstance(type, values.size()));
+			Predicate exists = HibernateSupport.existsInArray(builder, subquery, expression, array);
+			// not in excludes null values, so does not exists
+			return negate ? builder.and(builder.isNotNull(expression), exists.not()) : exists;
+		}
+		log.debug("Match {} arguments with in lists of {} on {}", values.size(), largeInListThreshold, database);
+		Predicate[] predicates = new Predicate[(values.size() + largeInListThreshold - 1) / largeInListThreshold];
+		for (int i = 0; i < predicates.length; i++) {
+			List<Object> chunk = values.subList(i * largeInListThreshold, Math.min(values.size(), (i + 1) * largeInListThreshold));
+			predicates[i] = negate ? expression.in(chunk).not() : expression.in(chunk);
+		}
+		return negate ? builder.and(predicates) : builder.or(predicates);
+	}
+
 	/**
 	 * Transform the given PathExpression into a {@link Predicate}
 	 *
 	 * @param node The node to transform
+	 * @param root The root of the query
 	 * @param resolvedExpression The resolved expression
 	 * @return The Predicate
 	 */
-	private Predicate expressionPredicate(ComparisonNode node, ResolvedExpression.PathExpression resolvedExpression) {
+	private Predicate expressionPredicate(ComparisonNode node, From root, ResolvedExpression.PathExpression resolvedExpression) {
 		Expression expression = resolvedExpression.expression();
 		Class type = resolvedExpression.type();
 		var op = node.getOperator();
 		var arguments = node.getArguments();
+		if (op.equals(IN_SET) || op.equals(NOT_IN_SET)) {
+			List<Object> ids = resolveIdSet(arguments.get(0), type);
+			return inPredicate(expression, type, ids, root, op.equals(NOT_IN_SET), InListBinding.ARRAY);
+		}
 		if (arguments.size() > 1) {
 			List<Object> listObject = new ArrayList<>();
 			for (String argument : arguments) {
 				listObject.add(convert(argument, type));
 			}
 			if (op.equals(IN)) {
-				return expression.in(listObject);
+				return inPredicate(expression, type, listObject, root, false);
 			}
 			if (op.equals(NOT_IN)) {
-				return expression.in(listObject).not();
+				return inPredicate(expression, type, listObject, root, true);
 			}
 			if (op.equals(BETWEEN)
 				&& listObject.get(0) instanceof Comparable comp1
@@ -372,6 +564,18 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 			if (op.equals(IGNORE_CASE_NOT_LIKE)) {
 				return likePredicate(expression, argument, true).not();
 			}
+			if (op.equals(STARTS_WITH)) {
+				return affixPredicate(expression, argument, true, false);
+			}
+			if (op.equals(IGNORE_CASE_STARTS_WITH)) {
+				return affixPredicate(expression, argument, true, true);
+			}
+			if (op.equals(ENDS_WITH)) {
+				return affixPredicate(expression, argument, false, false);
+			}
+			if (op.equals(IGNORE_CASE_ENDS_WITH)) {
+				return affixPredicate(expression, argument, false, true);
+			}
 			if (op.equals(EQUAL)) {
 				return equalPredicate(expression, type, argument);
 			}
@@ -416,16 +620,47 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 
 	private Predicate likePredicate(Expression<?> expression, Object argument, boolean ignoreCase) {
 		String argToUse = String.valueOf(argument);
+		String pattern = likeWildcards && argToUse.indexOf('*') >= 0 ? argToUse.replace('*', '%') : "%" + argToUse + "%";
 		Expression<String> strExpression = expression.as(String.class);
 		if (ignoreCase) {
 			if (HibernateSupport.isHibernateCriteriaBuilder(builder)) {
-				return HibernateSupport.ilike(builder, strExpression, argToUse, likeEscapeCharacter);
+				return HibernateSupport.ilike(builder, strExpression, pattern, likeEscapeCharacter);
 			}
 
-			return likePredicate(builder.upper(strExpression), "%" + argToUse.toUpperCase(Locale.ROOT) + "%", builder);
+			return likePredicate(builder.upper(strExpression), pattern.toUpperCase(Locale.ROOT), builder);
 		}
 		
-		return likePredicate(strExpression, "%" + argToUse + "%", builder);
+		return likePredicate(strExpression, pattern, builder);
+	}
+
+	/**
+	 * Matches the argument literally as a prefix, {@code like 'x%'}, or a suffix, {@code like '%x'}: the {@code %},
+	 * {@code _} and escape characters of the argument are escaped with {@link #likeEscapeCharacter}, or {@code \}
+	 * if none is set. Unlike {@code %x%}, a prefix can be matched with an index. Ignoring case matches
+	 * {@code upper(expression) like upper(?)} rather than {@code ilike}, so that an index on {@code upper(expression)}
+	 * can be used.
+	 */
+	private Predicate affixPredicate(Expression<?> expression, Object argument, boolean prefix, boolean ignoreCase) {
+		char escapeCharacter = likeEscapeCharacter != null ? likeEscapeCharacter : '\\';
+		String escaped = escapeLike(String.valueOf(argument), escapeCharacter);
+		String pattern = prefix ? escaped + "%" : "%" + escaped;
+		Expression<String> strExpression = expression.as(String.class);
+		if (ignoreCase) {
+			return builder.like(builder.upper(strExpression), builder.upper(HibernateSupport.bind(builder, pattern)), escapeCharacter);
+		}
+		return builder.like(strExpression, pattern, escapeCharacter);
+	}
+
+	private static String escapeLike(String argument, char escapeCharacter) {
+		StringBuilder escaped = new StringBuilder(argument.length() + 4);
+		for (int i = 0; i < argument.length(); i++) {
+			char c = argument.charAt(i);
+			if (c == '%' || c == '_' || c == escapeCharacter) {
+				escaped.append(escapeCharacter);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
 	}
 
 	private Predicate equalPredicate(Expression expr, Class type, Object argument) {
@@ -457,24 +692,252 @@ public class RSQLJPAPredicateConverter extends RSQLVisitorBase<Predicate, From>
 	@Override
 	public Predicate visit(AndNode node, From root) {
 		log.debug("visit(node:{},root:{})", node, root);
-		return visitChildren(node, root, builder::and);
+		List<Predicate> predicates = visitChildren(node, root, new ArrayList<>());
+		return predicates.size() == 1 ? predicates.get(0) : builder.and(predicates.toArray(new Predicate[0]));
 	}
 
 	@Override
 	public Predicate visit(OrNode node, From root) {
 		log.debug("visit(node:{},root:{})", node, root);
-		return visitChildren(node, root, builder::or);
+		List<Predicate> predicates = visitChildren(node, root, new ArrayList<>());
+		return predicates.size() == 1 ? predicates.get(0) : builder.or(predicates.toArray(new Predicate[0]));
 	}
 
-	private Predicate visitChildren(LogicalNode node, From root, BiFunction<Predicate, Predicate, Predicate> reducer) {
-		Predicate result = null;
+	/**
+	 * Collects the predicates of the children of the given node, flattening nested nodes of the same operator into a
+	 * single list, so that the junction is built as one n-ary predicate instead of a left-deep binary chain. Children
+	 * on the same collection matched with {@code exists} share one subquery.
+	 */
+	private List<Predicate> visitChildren(LogicalNode node, From root, List<Predicate> predicates) {
+		List<Node> children = flatten(node, new ArrayList<>());
+		if (!isExistsEnabled(root)) {
+			for (Node child : children) {
+				predicates.add(child.accept(this, root));
+			}
+			return predicates;
+		}
+		Map<String, List<Node>> collections = new HashMap<>();
+		List<Object> terms = new ArrayList<>(children.size());
+		for (Node child : children) {
+			String collection = collectionOf(child, root);
+			if (collection == null) {
+				terms.add(child);
+			} else {
+				List<Node> group = collections.get(collection);
+				if (group == null) {
+					group = new ArrayList<>();
+					collections.put(collection, group);
+					terms.add(group);
+				}
+				group.add(child);
+			}
+		}
+		for (Object term : terms) {
+			predicates.add(term instanceof Node child ? child.accept(this, root) : exists((List<Node>) term, node.getOperator(), root));
+		}
+		return predicates;
+	}
+
+	private static List<Node> flatten(LogicalNode node, List<Node> children) {
+		for (Node child : node) {
+			if (child instanceof LogicalNode logicalNode && logicalNode.getOperator() == node.getOperator()) {
+				flatten(logicalNode, children);
+			} else {
+				children.add(child);
+			}
+		}
+		return children;
+	}
+
+	private boolean isExistsEnabled(From root) {
+		return (existsSubqueries || !existsHints.isEmpty()) && !inSubquery && query != null
+				&& (root instanceof Root || root instanceof Join);
+	}
+
+	/**
+	 * Returns the to-many association or element collection all comparisons of the given node go through, if it is
+	 * matched with {@code exists}. A comparison which may match the {@code null} values of a missing element, e.g.
+	 * {@code projects.id=isnull=}, keeps the left join, since {@code exists} never matches an entity without elements.
+	 *
+	 * @return the path of the collection, e.g. {@code projects}, or {@code null}
+	 */
+	private String collectionOf(Node node, From root) {
+		if (node instanceof ComparisonNode comparison) {
+			String collection = collectionOf(comparison.getSelector(), root.getJavaType());
+			if (collection == null) {
+				return null;
+			}
+			SelectorJoins joins = joinsOf(comparison.getSelector(), root.getJavaType());
+			return joins != null && isNullRejecting(comparison, joins.type()) ? collection : null;
+		}
+		String collection = null;
+		for (Node child : (LogicalNode) node) {
+			String childCollection = collectionOf(child, root);
+			if (childCollection == null || (collection != null && !collection.equals(childCollection))) {
+				return null;
+			}
+			collection = childCollection;
+		}
+		return collection;
+	}
+
+	private String collectionOf(String selector, Class<?> type) {
+		ManagedType<?> classMetadata = getManagedTypeIndex().getManagedType(type);
+		String[] properties = mapPropertyPath(selector).split("\\.");
+		for (int i = 0; i < properties.length && classMetadata != null; i++) {
+			String property = properties[i];
+			if (!mapProperty(property, classMetadata.getJavaType()).equals(property) || !hasPropertyName(property, classMetadata)) {
+				return null;
+			}
+			Attribute<?, ?> attribute = getAttribute(property, classMetadata);
+			if (attribute.isCollection()) {
+				String keyJoin = classMetadata.getJavaType().getSimpleName().concat(".").concat(property);
+				return existsSubqueries || existsHints.contains(keyJoin) ? String.join(".", Arrays.copyOf(properties, i + 1)) : null;
+			}
+			if (attribute.getPersistentAttributeType() == PersistentAttributeType.BASIC) {
+				return null;
+			}
+			classMetadata = getManagedTypeIndex().getManagedType(attribute.getJavaType());
+		}
+		return null;
+	}
+
+	/**
+	 * Infers which joins the given query can create as inner instead of left joins: a left join returns the same rows as
+	 * an inner join when every comparison on the joined path rejects the {@code null} values of a missing row, i.e. is
+	 * reached through {@code and} nodes only and is neither {@code =null=}, a negation, a custom predicate nor an
+	 * equality with an argument which converts to {@code null}. Explicit {@link #joinHints} are kept.
+	 *
+	 * @param node the query to convert
+	 * @param type the type of the root entity
+	 */
+	void inferInnerJoins(Node node, Class<?> type) {
+		Set<String> inner = new HashSet<>();
+		Set<String> outer = new HashSet<>();
+		if (collectJoins(node, type, true, inner, outer)) {
+			inner.removeAll(outer);
+			innerJoins = inner;
+		} else {
+			innerJoins = Set.of();
+		}
+		log.debug("Inferred inner joins {}", innerJoins);
+	}
 
-		for (var child : node) {
-			result = result != null 
-					? reducer.apply(result, child.accept(this, root))
-					: child.accept(this, root);
+	/**
+	 * @return {@code false} if a selector cannot be resolved against the metamodel, e.g. a remapped property or a
+	 * function, so its joins are unknown
+	 */
+	private boolean collectJoins(Node node, Class<?> type, boolean nullRejecting, Set<String> inner, Set<String> outer) {
+		if (node instanceof LogicalNode logicalNode) {
+			boolean and = nullRejecting && logicalNode.getOperator() == LogicalOperator.AND;
+			for (Node child : logicalNode) {
+				if (!collectJoins(child, type, and, inner, outer)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		ComparisonNode comparison = (ComparisonNode) node;
+		SelectorJoins joins = joinsOf(comparison.getSelector(), type);
+		if (joins == null) {
+			return false;
 		}
+		(nullRejecting && isNullRejecting(comparison, joins.type()) ? inner : outer).addAll(joins.keyJoins());
+		return true;
+	}
 
-		return result;
+	/**
+	 * An empty argument converts to {@code null} for types other than {@link String}, which {@code ==} and {@code =in=}
+	 * then match with {@code is null}, so they only reject {@code null} if every argument converts to a value.
+	 */
+	private boolean isNullRejecting(ComparisonNode comparison, Class<?> type) {
+		ComparisonOperator operator = comparison.getOperator();
+		if (customPredicates.containsKey(operator) || operator.equals(IS_NULL)
+				|| operator.equals(NOT_EQUAL) || operator.equals(NOT_IN) || operator.equals(NOT_LIKE)
+				|| operator.equals(IGNORE_CASE_NOT_LIKE) || operator.equals(NOT_BETWEEN) || operator.equals(NOT_IN_SET)) {
+			return false;
+		}
+		if (operator.equals(EQUAL) || operator.equals(IN)) {
+			if (type == null) {
+				return false;
+			}
+			for (String argument : comparison.getArguments()) {
+				try {
+					if (convert(argument, type) == null) {
+						return false;
+					}
+				} catch (ConversionException e) {
+					// reported when the comparison is converted
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param keyJoins the keys of the associations and element collections the selector goes through
+	 * @param type     the type the arguments are converted to, {@code null} if the selector ends on an association
+	 */
+	private record SelectorJoins(List<String> keyJoins, Class<?> type) {
+	}
+
+	/**
+	 * @return the joins of the selector, {@code null} if the selector cannot be resolved against the metamodel
+	 */
+	private SelectorJoins joinsOf(String selector, Class<?> type) {
+		ManagedType<?> classMetadata = getManagedTypeIndex().getManagedType(type);
+		String[] properties = mapPropertyPath(selector).split("\\.");
+		List<String> keyJoins = new ArrayList<>();
+		Class<?> javaType = null;
+		for (int i = 0; i < properties.length && classMetadata != null; i++) {
+			String property = properties[i];
+			if (!mapProperty(property, classMetadata.getJavaType()).equals(property) || !hasPropertyName(property, classMetadata)) {
+				return null;
+			}
+			Attribute<?, ?> attribute = getAttribute(property, classMetadata);
+			if (attribute.getPersistentAttributeType() == PersistentAttributeType.BASIC) {
+				return new SelectorJoins(keyJoins, argumentType(attribute.getJavaType()));
+			}
+			keyJoins.add(classMetadata.getJavaType().getSimpleName().concat(".").concat(property));
+			javaType = attribute instanceof PluralAttribute<?, ?, ?> plural ? plural.getElementType().getJavaType() : attribute.getJavaType();
+			classMetadata = getManagedTypeIndex().getManagedType(javaType);
+		}
+		// an element collection of basic values ends without metadata
+		return new SelectorJoins(keyJoins, classMetadata == null && javaType != null ? argumentType(javaType) : null);
+	}
+
+	private static Class<?> argumentType(Class<?> type) {
+		if (type.isPrimitive()) {
+			return primitiveToWrapper.get(type);
+		}
+		return RSQLJPASupport.getValueTypeMap().getOrDefault(type, type);
+	}
+
+	/**
+	 * Matches the given nodes, all on the same collection, with
+	 * {@code exists (select 1 from ... where <nodes joined by operator>)} correlated to the given root, so that and-ed
+	 * nodes are matched by the same element as with a join, without returning the entity once per element.
+	 */
+	private Predicate exists(List<Node> nodes, LogicalOperator operator, From root) {
+		log.debug("exists(nodes:{},operator:{},root:{})", nodes, operator, root);
+		Subquery<Integer> subquery = query.subquery(Integer.class);
+		From correlated = root instanceof Root correlatedRoot ? subquery.correlate(correlatedRoot) : subquery.correlate((Join) root);
+		Map<String, Path> outerJoins = cachedJoins;
+		cachedJoins = new HashMap<>();
+		inSubquery = true;
+		try {
+			Predicate[] predicates = new Predicate[nodes.size()];
+			for (int i = 0; i < predicates.length; i++) {
+				predicates[i] = nodes.get(i).accept(this, correlated);
+			}
+			Predicate predicate = predicates.length == 1 ? predicates[0]
+					: operator == LogicalOperator.AND ? builder.and(predicates) : builder.or(predicates);
+			subquery.select(builder.literal(1)).where(predicate);
+		} finally {
+			cachedJoins = outerJoins;
+			inSubquery = false;
+		}
+		return builder.exists(subquery);
 	}
 }
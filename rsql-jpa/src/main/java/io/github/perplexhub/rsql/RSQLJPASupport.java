@@ -1,24 +1,27 @@
 package io.github.perplexhub.rsql;
 
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toSet;
 
 import java.util.*;
 import java.util.stream.Stream;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.lang.Nullable;
 import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.util.StringUtils;
 
-import cz.jirutka.rsql.parser.RSQLParser;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import cz.jirutka.rsql.parser.ast.Node;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +30,11 @@ import lombok.extern.slf4j.Slf4j;
 @SuppressWarnings({ "serial" })
 public class RSQLJPASupport extends RSQLCommonSupport {
 
+	/**
+	 * Default number of rows fetched per database round trip by {@link #stream(Class, String, String)}.
+	 */
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+
 	public RSQLJPASupport() {
 		super();
 	}
@@ -106,35 +114,128 @@ public class RSQLJPASupport extends RSQLCommonSupport {
 		return toSpecification(rsqlQuery, false, propertyPathMapper, customPredicates, joinHints, propertyWhitelist, propertyBlacklist);
 	}
 
+	/**
+	 * Creates a {@link Specification} for the given query.<br>
+	 * The RSQL query is parsed and the property whitelist and blacklist are compiled once here, so syntax errors are
+	 * reported immediately and both are reused every time the specification is applied (e.g. for both the content and
+	 * the count query of a page).
+	 *
+	 * @param querySupport - query support
+	 * @param <T>
+	 * @return {@code Specification} for the RSQL query
+	 * @throws cz.jirutka.rsql.parser.RSQLParserException if the RSQL query cannot be parsed
+	 */
 	public static <T> Specification<T> toSpecification(final QuerySupport querySupport) {
-		log.debug("toSpecification({})", querySupport);
+		return toSpecification(querySupport, null);
+	}
+
+	/**
+	 * Creates a {@link Specification} for the given query and sort, see {@link #toSpecification(QuerySupport)} and
+	 * {@link #toSort(SortSupport)}.<br>
+	 * The sort resolves its paths with the joins of the query, so a path both filtered and sorted on, e.g. {@code company.code}
+	 * and {@code company.name}, is joined once, with the join type of the query.
+	 *
+	 * @param querySupport - query support
+	 * @param sortSupport - sort support, can be {@literal null}
+	 * @param <T>
+	 * @return {@code Specification} for the RSQL query with specified order by
+	 * @throws cz.jirutka.rsql.parser.RSQLParserException if the RSQL query cannot be parsed
+	 */
+	public static <T> Specification<T> toSpecification(final QuerySupport querySupport, @Nullable final SortSupport sortSupport) {
+		log.debug("toSpecification({},{})", querySupport, sortSupport);
+		final Node rsql = StringUtils.hasText(querySupport.getRsqlQuery())
+				? parse(querySupport.getRsqlQuery(), getSupportedOperators(querySupport.getCustomPredicates()))
+				: null;
+		final AccessPolicy accessPolicy = AccessPolicy.of(querySupport.getPropertyWhitelist(), querySupport.getPropertyBlacklist());
 		return (root, query, cb) -> {
-			query.distinct(querySupport.isDistinct());
-			if (!StringUtils.hasText(querySupport.getRsqlQuery())) {
-				return null;
+			Filter filter = toFilter(querySupport, rsql, accessPolicy, root, query, cb);
+			if (sortSupport != null) {
+				sort(sortSupport, filter.joins(), root, query, cb);
 			}
+			return filter.predicate();
+		};
+	}
 
-			Set<ComparisonOperator> supportedOperators = RSQLOperators.supportedOperators();
-			if (querySupport.getCustomPredicates() != null) {
-				Stream<ComparisonOperator> customOperators = querySupport.getCustomPredicates().stream()
-						.map(RSQLCustomPredicate::getOperator)
-						.filter(Objects::nonNull);
+	/**
+	 * The predicate of a query, and the converter which created it, whose joins a sort of the same query reuses.
+	 *
+	 * @param predicate the predicate, {@code null} without a filter
+	 * @param joins     the converter, {@code null} without a filter
+	 */
+	record Filter(@Nullable Predicate predicate, @Nullable RSQLJPAPredicateConverter joins) {
+	}
 
-				supportedOperators = Stream.concat(supportedOperators.stream(), customOperators).collect(toSet());
-			}
+	/**
+	 * Creates the filter of the given query, see {@link #toSpecification(QuerySupport)}.
+	 */
+	static Filter toFilter(QuerySupport querySupport, Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+		final Node rsql = StringUtils.hasText(querySupport.getRsqlQuery())
+				? parse(querySupport.getRsqlQuery(), getSupportedOperators(querySupport.getCustomPredicates()))
+				: null;
+		return toFilter(querySupport, rsql, AccessPolicy.of(querySupport.getPropertyWhitelist(), querySupport.getPropertyBlacklist()),
+				root, query, cb);
+	}
 
-			Node rsql = new RSQLParser(supportedOperators).parse(querySupport.getRsqlQuery());
-			RSQLJPAPredicateConverter visitor = new RSQLJPAPredicateConverter(cb, querySupport.getPropertyPathMapper(),
-					querySupport.getCustomPredicates(), querySupport.getJoinHints(),
-					querySupport.getProcedureWhiteList(), querySupport.getProcedureBlackList(),
-					querySupport.isStrictEquality(), querySupport.getLikeEscapeCharacter(),
-                    querySupport.getJsonbConfiguration());
+	private static Filter toFilter(QuerySupport querySupport, @Nullable Node rsql, AccessPolicy accessPolicy,
+			Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+		query.distinct(querySupport.isDistinct());
+		if (rsql == null) {
+			return new Filter(null, null);
+		}
+		RSQLJPAPredicateConverter visitor = newConverter(querySupport, accessPolicy, cb);
+		return new Filter(toPredicate(querySupport, rsql, visitor, root, query, cb), visitor);
+	}
 
-			visitor.setPropertyWhitelist(querySupport.getPropertyWhitelist());
-			visitor.setPropertyBlacklist(querySupport.getPropertyBlacklist());
+	private static RSQLJPAPredicateConverter newConverter(QuerySupport querySupport, AccessPolicy accessPolicy, CriteriaBuilder cb) {
+		RSQLJPAPredicateConverter visitor = new RSQLJPAPredicateConverter(cb, querySupport.getPropertyPathMapper(),
+				querySupport.getCustomPredicates(), querySupport.getJoinHints(),
+				querySupport.getProcedureWhiteList(), querySupport.getProcedureBlackList(),
+				querySupport.isStrictEquality(), querySupport.getLikeEscapeCharacter(),
+				querySupport.getJsonbConfiguration());
+		visitor.setAccessPolicy(accessPolicy);
+		return visitor;
+	}
 
-			return rsql.accept(visitor, root);
-		};
+	private static Predicate toPredicate(QuerySupport querySupport, Node rsql,
+			RSQLJPAPredicateConverter visitor, Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+		visitor.setParameterized(querySupport.isParameterized());
+		visitor.setLikeWildcards(querySupport.isLikeWildcards());
+		visitor.setInListBinding(querySupport.getInListBinding());
+		visitor.setLargeInListThreshold(querySupport.getLargeInListThreshold());
+		visitor.setQuery(query);
+		visitor.setExistsSubqueries(querySupport.isExistsSubqueries());
+		if (querySupport.getExistsHints() != null) {
+			visitor.setExistsHints(querySupport.getExistsHints());
+		}
+
+		Node node = rsql;
+		if (querySupport.isSimplify()) {
+			Optional<Node> simplified = RSQLSimplifier.simplify(rsql, selector -> visitor.isSingleValued(selector, root.getJavaType()));
+			if (simplified.isEmpty()) {
+				log.debug("Query [{}] can never match", querySupport.getRsqlQuery());
+				return cb.disjunction();
+			}
+			node = simplified.get();
+		}
+		if (querySupport.isInferInnerJoins()) {
+			visitor.inferInnerJoins(node, root.getJavaType());
+		}
+		Predicate predicate = node.accept(visitor, root);
+		if (querySupport.isAutoDistinct() && visitor.isCollectionJoined()) {
+			log.debug("Query [{}] joins a collection, distinct", querySupport.getRsqlQuery());
+			query.distinct(true);
+		}
+		return predicate;
+	}
+
+	private static Set<ComparisonOperator> getSupportedOperators(@Nullable final List<RSQLCustomPredicate<?>> customPredicates) {
+		if (customPredicates == null || customPredicates.isEmpty()) {
+			return RSQLOperators.supportedOperators();
+		}
+		Stream<ComparisonOperator> customOperators = customPredicates.stream()
+				.map(RSQLCustomPredicate::getOperator)
+				.filter(Objects::nonNull);
+		return Stream.concat(RSQLOperators.supportedOperators().stream(), customOperators).collect(toSet());
 	}
 
 	public static <T> Specification<T> toSpecification(
@@ -166,7 +267,10 @@ public class RSQLJPASupport extends RSQLCommonSupport {
 
 	/**
 	 * Add orderBy(s) to {@code CriteriaQuery}.
-	 * Example: {@code "field1,asc;field2,desc;field3.subfield1,asc"}
+	 * Example: {@code "field1,asc;field2,desc;field3.subfield1,asc"}<br>
+	 * With {@link SortSupport#isAutoDistinct()}, the query is made {@code distinct} when it joins a to-many association
+	 * or element collection and is only ordered by columns of the root entity, which are the only order expressions a
+	 * {@code distinct} query accepts on most databases.
 	 *
 	 * @param sortSupport - sort support
 	 * @param <T>
@@ -175,14 +279,27 @@ public class RSQLJPASupport extends RSQLCommonSupport {
 	public static <T> Specification<T> toSort(final SortSupport sortSupport) {
 		log.debug("toSort({})", sortSupport);
 		return (root, query, cb) -> {
-			if (StringUtils.hasText(sortSupport.getSortQuery())) {
-				final List<Order> orders = SortUtils.parseSort(sortSupport, root, cb);
-				query.orderBy(orders);
-			}
+			sort(sortSupport, null, root, query, cb);
 			return null;
 		};
 	}
 
+	/**
+	 * @param joins - converter whose joins the sort paths reuse, can be {@literal null}
+	 */
+	private static void sort(SortSupport sortSupport, @Nullable RSQLJPAPredicateConverter joins, Root<?> root,
+			CriteriaQuery<?> query, CriteriaBuilder cb) {
+		if (StringUtils.hasText(sortSupport.getSortQuery())) {
+			final List<Order> orders = SortUtils.parseSort(sortSupport, root, cb, joins);
+			query.orderBy(orders);
+			if (sortSupport.isAutoDistinct() && JoinUtils.hasCollectionJoin(root)
+					&& orders.stream().allMatch(order -> SortUtils.isRootColumn(order.getExpression(), root))) {
+				log.debug("Sort [{}] of a query joining a collection, distinct", sortSupport.getSortQuery());
+				query.distinct(true);
+			}
+		}
+	}
+
 	/**
 	 * Returns a single entity matching the given {@link Specification} or {@link Optional#empty()} if none found.
 	 *
@@ -255,6 +372,170 @@ public class RSQLJPASupport extends RSQLCommonSupport {
 		return jpaSpecificationExecutor.count(toSpecification(rsqlQuery));
 	}
 
+	/**
+	 * Returns the given fields of the entities matching the given RSQL query. See
+	 * {@link #findFields(Class, String, QuerySupport, SortSupport)}.
+	 *
+	 * @param entityClass entity to query
+	 * @param fields comma delimited property paths, e.g. {@code "name,company.name,createDate"}.
+	 * @param rsqlQuery can be {@literal null}.
+	 * @param sortQuery can be {@literal null}.
+	 * @return never {@literal null}.
+	 */
+	public static List<Tuple> findFields(Class<?> entityClass, String fields, @Nullable String rsqlQuery, @Nullable String sortQuery) {
+		return findFields(entityClass, fields, QuerySupport.builder().rsqlQuery(rsqlQuery).build(),
+				SortSupport.builder().sortQuery(sortQuery).build());
+	}
+
+	/**
+	 * Returns the given fields of the entities matching the given query, instead of the entities: only the columns of
+	 * the fields are selected and no entity is loaded into the persistence context.<br>
+	 * Each field is resolved like a selector of the RSQL query, with the property path mapper and the property
+	 * whitelist and blacklist of the {@code querySupport}, and is the alias of its value in the returned tuples.
+	 * Associations are joined once for the filter, sort and fields; associations joined for fields only are left
+	 * joined, so a {@code null} association gives {@code null} values.
+	 *
+	 * @param entityClass entity to query
+	 * @param fields comma delimited property paths, e.g. {@code "name,company.name,createDate"}.
+	 * @param querySupport query support
+	 * @param sortSupport sort support, can be {@literal null}.
+	 * @return never {@literal null}.
+	 */
+	public static List<Tuple> findFields(Class<?> entityClass, String fields, QuerySupport querySupport, @Nullable SortSupport sortSupport) {
+		log.debug("findFields({},{},{},{})", entityClass.getSimpleName(), fields, querySupport, sortSupport);
+		Set<String> aliases = StringUtils.commaDelimitedListToSet(fields).stream()
+				.map(String::trim)
+				.filter(StringUtils::hasText)
+				.collect(toCollection(LinkedHashSet::new));
+		if (aliases.isEmpty()) {
+			throw new IllegalArgumentException("No fields to select: " + fields);
+		}
+		EntityManager entityManager = entityManagerOf(entityClass);
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<?> root = query.from(entityClass);
+		query.distinct(querySupport.isDistinct());
+		RSQLJPAPredicateConverter visitor = newConverter(querySupport,
+				AccessPolicy.of(querySupport.getPropertyWhitelist(), querySupport.getPropertyBlacklist()), cb);
+		if (StringUtils.hasText(querySupport.getRsqlQuery())) {
+			Node rsql = parse(querySupport.getRsqlQuery(), getSupportedOperators(querySupport.getCustomPredicates()));
+			Predicate predicate = toPredicate(querySupport, rsql, visitor, root, query, cb);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		if (sortSupport != null) {
+			sort(sortSupport, visitor, root, query, cb);
+		}
+		visitor.setLeftJoins(true);
+		List<Selection<?>> selections = new ArrayList<>(aliases.size());
+		for (String alias : aliases) {
+			selections.add(visitor.findPropertyPath(alias, root).getPath().alias(alias));
+		}
+		query.multiselect(selections);
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	/**
+	 * Streams the entities matching the given RSQL query, fetching {@value #DEFAULT_FETCH_SIZE} rows at a time. See
+	 * {@link #stream(Class, QuerySupport, SortSupport, int)}.
+	 *
+	 * @param entityClass entity to query
+	 * @param rsqlQuery can be {@literal null}.
+	 * @param sortQuery can be {@literal null}.
+	 * @return never {@literal null}, must be closed.
+	 */
+	public static <T> Stream<T> stream(Class<T> entityClass, @Nullable String rsqlQuery, @Nullable String sortQuery) {
+		return stream(entityClass, QuerySupport.builder().rsqlQuery(rsqlQuery).build(),
+				SortSupport.builder().sortQuery(sortQuery).build(), DEFAULT_FETCH_SIZE);
+	}
+
+	/**
+	 * Streams the entities matching the given query, for exports of more rows than fit in memory. The rows are
+	 * fetched from the database {@code fetchSize} at a time, read-only and bypassing the second-level cache, and the
+	 * streamed entities are detached every {@code fetchSize} entities once the stream has passed them on, so they must
+	 * be processed, not collected, downstream. The persistence context is flushed before the query; other entities
+	 * it holds stay managed.<br>
+	 * Must be called within a transaction, and the stream closed, e.g. with try-with-resources, to release the
+	 * result set.
+	 *
+	 * @param entityClass entity to query
+	 * @param querySupport query support
+	 * @param sortSupport sort support, can be {@literal null}.
+	 * @param fetchSize number of rows fetched per database round trip and detached together.
+	 * @return never {@literal null}, must be closed.
+	 */
+	public static <T> Stream<T> stream(Class<T> entityClass, QuerySupport querySupport, @Nullable SortSupport sortSupport, int fetchSize) {
+		log.debug("stream({},{},{},{})", entityClass.getSimpleName(), querySupport, sortSupport, fetchSize);
+		if (fetchSize < 1) {
+			throw new IllegalArgumentException("Fetch size must be positive: " + fetchSize);
+		}
+		return StreamUtils.stream(entityManagerOf(entityClass), entityClass, toSpecification(querySupport, sortSupport), fetchSize);
+	}
+
+	/**
+	 * Returns a {@link Window} of entities matching the given query, starting at the given position, with the scroll
+	 * API of Spring Data, e.g. {@code ScrollPosition.keyset()} for keyset pagination with Spring Data's sort.
+	 *
+	 * @param jpaSpecificationExecutor JPA repository
+	 * @param querySupport query support
+	 * @param sort must not be {@literal null}, and not be unsorted for keyset positions.
+	 * @param limit maximum number of entities of the window.
+	 * @param position must not be {@literal null}.
+	 * @return never {@literal null}.
+	 */
+	public static <T> Window<T> scroll(JpaSpecificationExecutor<T> jpaSpecificationExecutor, QuerySupport querySupport, Sort sort,
+			int limit, ScrollPosition position) {
+		return jpaSpecificationExecutor.findBy(toSpecification(querySupport), query -> query.sortBy(sort).limit(limit).scroll(position));
+	}
+
+	/**
+	 * Returns the window of entities following the given cursor, using keyset pagination: the rows after the last row
+	 * of the previous window are selected by its sort key values instead of being skipped with an offset.
+	 *
+	 * @param entityClass entity to query
+	 * @param rsqlQuery can be {@literal null}.
+	 * @param sortQuery can be {@literal null}, the id of the entity is always appended as the last sort key.
+	 * @param cursor {@literal null} for the first window, otherwise {@link KeysetWindow#getNextCursor()} of the previous window.
+	 * @param size maximum number of entities of the window.
+	 * @return never {@literal null}.
+	 * @throws InvalidCursorException if the cursor was not created by a window of the same entity and sort.
+	 */
+	public static <T> KeysetWindow<T> findWindow(Class<T> entityClass, @Nullable String rsqlQuery, @Nullable String sortQuery,
+			@Nullable String cursor, int size) {
+		return findWindow(entityClass, QuerySupport.builder().rsqlQuery(rsqlQuery).build(),
+				SortSupport.builder().sortQuery(sortQuery).build(), cursor, size);
+	}
+
+	/**
+	 * Returns the window of entities following the given cursor, using keyset pagination. See
+	 * {@link #findWindow(Class, String, String, String, int)}.
+	 *
+	 * @param entityClass entity to query
+	 * @param querySupport query support
+	 * @param sortSupport sort support
+	 * @param cursor {@literal null} for the first window, otherwise {@link KeysetWindow#getNextCursor()} of the previous window.
+	 * @param size maximum number of entities of the window.
+	 * @return never {@literal null}.
+	 * @throws InvalidCursorException if the cursor was not created by a window of the same entity and sort.
+	 */
+	public static <T> KeysetWindow<T> findWindow(Class<T> entityClass, QuerySupport querySupport, SortSupport sortSupport,
+			@Nullable String cursor, int size) {
+		log.debug("findWindow({},{},{},{},{})", entityClass.getSimpleName(), querySupport, sortSupport, cursor, size);
+		if (size < 1) {
+			throw new IllegalArgumentException("Window size must be positive: " + size);
+		}
+		return KeysetUtils.findWindow(entityManagerOf(entityClass), entityClass, querySupport, sortSupport, cursor, size);
+	}
+
+	private static EntityManager entityManagerOf(Class<?> entityClass) {
+		EntityManager entityManager = RSQLVisitorBase.findEntityManager(entityClass);
+		if (entityManager == null) {
+			throw new IllegalArgumentException("No entity manager found for " + entityClass.getName());
+		}
+		return entityManager;
+	}
+
 	protected String getVersion() {
 		try {
 			Properties prop = new Properties();
@@ -11,54 +11,71 @@ import java.util.stream.Stream;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 
+import org.springframework.util.ConcurrentLruCache;
+
 sealed interface Selector {
 
     Pattern LONG_PATTERN = Pattern.compile("-?\\d+");
     Pattern DOUBLE_PATTERN = Pattern.compile("-?\\d+(\\.\\d+)?");
 
-    Expression<?> getExpression(BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper);
+    /**
+     * Parsed selectors by selector string, selectors are immutable and independent of the criteria builder.
+     */
+    ConcurrentLruCache<String, Selector> SELECTORS = new ConcurrentLruCache<>(1024, Selector::parse);
+
+    default Expression<?> getExpression(CriteriaBuilder builder, BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper) {
+        return getExpression(builder, columnMapper, false);
+    }
+
+    /**
+     * @param parameterized whether static values are bound as parameters instead of being inlined as literals
+     */
+    Expression<?> getExpression(CriteriaBuilder builder, BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper, boolean parameterized);
 
-    record ValueSelector(Object value, CriteriaBuilder builder) implements Selector {
+    record ValueSelector(Object value) implements Selector {
         @Override
-        public Expression<?> getExpression(BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper) {
+        public Expression<?> getExpression(CriteriaBuilder builder, BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper, boolean parameterized) {
             if(value == null) {
                 return builder.nullLiteral(Object.class);
             }
+            Object staticValue = value;
             if(value instanceof String stringValue) {
                 //replace tab with space
-                stringValue = stringValue.replace("\t", " ");
-                return builder.literal(stringValue);
+                staticValue = stringValue.replace("\t", " ");
             } else if (value instanceof NullValue) {
                 return builder.nullLiteral(Object.class);
             }
-            return builder.literal(value);
+            return parameterized ? HibernateSupport.bind(builder, staticValue) : builder.literal(staticValue);
         }
     }
 
-    record SingleColumnSelector(String column, CriteriaBuilder criteriaBuilder) implements Selector {
+    record SingleColumnSelector(String column) implements Selector {
         @Override
-        public Expression<?> getExpression(BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper) {
-            return columnMapper.apply(column, criteriaBuilder);
+        public Expression<?> getExpression(CriteriaBuilder builder, BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper, boolean parameterized) {
+            return columnMapper.apply(column, builder);
         }
     }
 
-    record FunctionSelector(String function, Collection<Selector> arguments, CriteriaBuilder builder)
-            implements Selector {
+    record FunctionSelector(String function, Collection<Selector> arguments) implements Selector {
         @Override
-        public Expression<?> getExpression(BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper) {
+        public Expression<?> getExpression(CriteriaBuilder builder, BiFunction<String, CriteriaBuilder, Expression<?>> columnMapper, boolean parameterized) {
             Expression<?>[] expressions = arguments.stream()
-                    .map(argument -> argument.getExpression(columnMapper)).toArray(Expression<?>[]::new);
+                    .map(argument -> argument.getExpression(builder, columnMapper, parameterized)).toArray(Expression<?>[]::new);
             return builder.function(function, Object.class, expressions);
         }
     }
 
-    static Selector selectorOf(String column, CriteriaBuilder criteriaBuilder) {
+    static Selector selectorOf(String column) {
         if(column == null) {
             throw new IllegalArgumentException("Column cannot be null");
         }
         if(column.isBlank()) {
             throw new IllegalArgumentException("Column cannot be blank");
         }
+        return SELECTORS.get(column);
+    }
+
+    private static Selector parse(String column) {
         if(column.startsWith("@")) {
             int argStart = column.indexOf('[');
             int argEnd = column.lastIndexOf(']');
@@ -67,22 +84,22 @@ sealed interface Selector {
                 String argsString = column.substring(argStart + 1, argEnd);
                 Collection<Selector> args = Stream.of(argsString.split("\\|"))
                         .map(String::trim)
-                        .map(arg -> selectorOf(arg, criteriaBuilder)).toList();
-                return new FunctionSelector(function, args, criteriaBuilder);
+                        .map(Selector::selectorOf).toList();
+                return new FunctionSelector(function, args);
             }
         } else if (column.startsWith("#")) {
             String value = column.substring(1);
             if(Objects.equals(value, "null")) {
-                return new ValueSelector(null, criteriaBuilder);
+                return new ValueSelector(null);
             }
             //Test if value is a boolean or a number else return the value as string
             Object object = numberFromString(value)
                             .orElseGet(() -> booleanFromString(value)
                             .orElse(value));
-            return new ValueSelector(object, criteriaBuilder);
+            return new ValueSelector(object);
 
         }
-        return new SingleColumnSelector(column, criteriaBuilder);
+        return new SingleColumnSelector(column);
     }
 
     static Optional<Object> nullFromString(String value) {
@@ -115,10 +132,10 @@ sealed interface Selector {
 
     record NullValue() {}
 
-    static void assertWhiteListed(Selector selector, Collection<String> whiteList) {
+    static void assertWhiteListed(Selector selector, ProcedureMatcher whiteList) {
 
         if(selector instanceof FunctionSelector functionSelector) {
-            if (whiteList == null || !matchesInCollection(functionSelector.function, whiteList)) {
+            if (!whiteList.matches(functionSelector.function)) {
                 throw new FunctionNotWhiteListedException(functionSelector.function);
             }
             functionSelector.arguments
@@ -126,20 +143,16 @@ sealed interface Selector {
         }
     }
 
-    static void assertNotBlackListed(Selector selector, Collection<String> blackList) {
-        if (blackList == null || blackList.isEmpty()) {
+    static void assertNotBlackListed(Selector selector, ProcedureMatcher blackList) {
+        if (blackList == ProcedureMatcher.NONE) {
             return;
         }
         if(selector instanceof FunctionSelector functionSelector) {
-            if(matchesInCollection(functionSelector.function, blackList)) {
+            if(blackList.matches(functionSelector.function)) {
                 throw new FunctionBlackListedException(functionSelector.function);
             }
             functionSelector.arguments.
                     forEach(argument -> assertNotBlackListed(argument, blackList));
         }
     }
-
-    static boolean matchesInCollection(String value, Collection<String> values) {
-        return values.stream().anyMatch(value::matches);
-    }
 }
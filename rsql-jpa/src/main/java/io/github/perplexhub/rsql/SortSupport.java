@@ -15,10 +15,15 @@ public class SortSupport {
     private Map<String, JoinType> joinHints;
     private Collection<String> procedureWhiteList;
     private Collection<String> procedureBlackList;
+    /**
+     * Whether the query is made {@code distinct} when it joins a to-many association or element collection and all
+     * sort paths are columns of the root entity.
+     */
+    private boolean autoDistinct;
 
     @Override
     public String toString() {
-        return String.format("%s,propertyPathMapper:%s,joinHints:%s,procedureWhiteList:%s,procedureBlackList:%s",
-                sortQuery, propertyPathMapper, joinHints, procedureWhiteList, procedureBlackList);
+        return String.format("%s,propertyPathMapper:%s,joinHints:%s,procedureWhiteList:%s,procedureBlackList:%s,autoDistinct:%b",
+                sortQuery, propertyPathMapper, joinHints, procedureWhiteList, procedureBlackList, autoDistinct);
     }
 }
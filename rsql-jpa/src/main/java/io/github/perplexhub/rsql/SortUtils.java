@@ -10,6 +10,7 @@ import java.util.stream.Stream;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
 
 import org.hibernate.query.criteria.JpaExpression;
@@ -30,45 +31,76 @@ class SortUtils {
     }
 
     static List<Order> parseSort(final SortSupport sortSupport, final Root<?> root, final CriteriaBuilder cb) {
+        return parseSort(sortSupport, root, cb, null);
+    }
+
+    /**
+     * @param joins converter whose joins the sort paths reuse, e.g. the converter of the query's filter
+     */
+    static List<Order> parseSort(final SortSupport sortSupport, final Root<?> root, final CriteriaBuilder cb,
+            @Nullable final RSQLJPAPredicateConverter joins) {
+        return parseSortKeys(sortSupport, root, cb, false, joins).stream()
+                .map(key -> key.ascending() ? cb.asc(key.expression()) : cb.desc(key.expression()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses the sort into the expressions and directions to order by.
+     *
+     * @param jsonAsText whether a nested jsonb sort key is extracted as text, so that its values can be compared with
+     *                   parameters of a known type, e.g. by keyset pagination
+     * @param joins      converter whose joins the sort paths reuse, e.g. the converter of the query's filter
+     */
+    static List<SortKey> parseSortKeys(final SortSupport sortSupport, final Root<?> root, final CriteriaBuilder cb,
+            final boolean jsonAsText, @Nullable final RSQLJPAPredicateConverter joins) {
         if (!StringUtils.hasText(sortSupport.getSortQuery())) {
             return new ArrayList<>();
         }
 
+        final RSQLJPAPredicateConverter converter =
+                new RSQLJPAPredicateConverter(cb, sortSupport.getPropertyPathMapper(), null,
+                        sortSupport.getJoinHints(), sortSupport.getProcedureWhiteList(),
+                        sortSupport.getProcedureBlackList());
+        if (joins != null) {
+            converter.shareJoins(joins);
+        }
         return MULTIPLE_SORT_SEPARATOR.splitAsStream(sortSupport.getSortQuery())
                 .map(SortUtils::split)
                 .filter(parts -> parts.length > 0)
-                .map(parts -> sortToJpaOrder(parts, sortSupport, root, cb))
+                .map(parts -> sortKey(parts, sortSupport, converter, root, cb, jsonAsText))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Whether the order expression is a column of the root entity, which a {@code distinct} query selects.
+     */
+    static boolean isRootColumn(final Expression<?> expression, final Root<?> root) {
+        return expression instanceof Path<?> path && path.getParentPath() == root;
+    }
+
     private static String[] split(String sort) {
         return SORT_SEPARATOR.splitAsStream(sort)
                 .filter(StringUtils::hasText)
                 .toArray(String[]::new);
     }
 
-    private static Order sortToJpaOrder(final String[] parts, final SortSupport sortSupport, final Root<?> root,
-            final CriteriaBuilder cb) {
+    private static SortKey sortKey(final String[] parts, final SortSupport sortSupport,
+            final RSQLJPAPredicateConverter converter, final Root<?> root, final CriteriaBuilder cb, final boolean jsonAsText) {
         final String property = parts[0];
 
-        Selector selector = Selector.selectorOf(property, cb);
+        Selector selector = Selector.selectorOf(property);
 
-        Selector.assertWhiteListed(selector, sortSupport.getProcedureWhiteList());
-        Selector.assertNotBlackListed(selector, sortSupport.getProcedureBlackList());
+        Selector.assertWhiteListed(selector, ProcedureMatcher.of(sortSupport.getProcedureWhiteList()));
+        Selector.assertNotBlackListed(selector, ProcedureMatcher.of(sortSupport.getProcedureBlackList()));
 
         final String direction = parts.length > 1 ? parts[1] : "asc";
 
-        final RSQLJPAPredicateConverter converter =
-                new RSQLJPAPredicateConverter(cb, sortSupport.getPropertyPathMapper(), null,
-                        sortSupport.getJoinHints(), sortSupport.getProcedureWhiteList(),
-                        sortSupport.getProcedureBlackList());
-
         final boolean ic = parts.length > 2 && "ic".equalsIgnoreCase(parts[2]);
-        Expression<?> propertyExpression = selector.getExpression((string, builder) ->{
+        Expression<?> propertyExpression = selector.getExpression(cb, (string, builder) ->{
             final RSQLJPAContext rsqljpaContext = converter.findPropertyPath(string, root);
             final boolean isJson = JsonbSupport.isJsonType(rsqljpaContext.getAttribute());
             return isJson
-                    ? sortExpressionOfJson(rsqljpaContext, string, sortSupport.getPropertyPathMapper(), builder, ic)
+                    ? sortExpressionOfJson(rsqljpaContext, string, converter.getPropertyPathMapping(), builder, ic || jsonAsText)
                     : rsqljpaContext.getPath();
         });
 
@@ -76,7 +108,7 @@ class SortUtils {
             propertyExpression = cb.lower(propertyExpression.as(String.class));
         }
 
-        return direction.equalsIgnoreCase("asc") ? cb.asc(propertyExpression) : cb.desc(propertyExpression);
+        return new SortKey(propertyExpression, direction.equalsIgnoreCase("asc"));
     }
 
     /**
@@ -91,10 +123,10 @@ class SortUtils {
      */
     private static Expression<?> sortExpressionOfJson(RSQLJPAContext context,
                                                       String property,
-                                                      Map<String, String> mapping,
+                                                      PropertyPathMapping mapping,
                                                       CriteriaBuilder builder,
                                                       boolean ic) {
-        String path = PathUtils.expectBestMapping(property, mapping);
+        String path = mapping.expectBestMapping(property);
         String jsonbSelector = JsonbSupport.jsonPathOfSelector(context.getAttribute(), path);
         if(jsonbSelector.contains(".")) {
             var args = new ArrayList<Expression<?>>();
@@ -113,4 +145,10 @@ class SortUtils {
         }
     }
 
+    /**
+     * Expression and direction of one sort key.
+     */
+    record SortKey(Expression<?> expression, boolean ascending) {
+    }
+
 }
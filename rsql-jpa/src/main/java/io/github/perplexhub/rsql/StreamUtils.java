@@ -0,0 +1,101 @@
+package io.github.perplexhub.rsql;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams the entities of a query row by row: the rows are fetched from the JDBC result set {@code fetchSize} at a
+ * time, read-only and bypassing the second-level cache, and the streamed entities are detached every
+ * {@code fetchSize} entities once they are consumed, so memory stays flat regardless of the number of rows.<br>
+ * The stream shares the persistence context of the caller, which is flushed before the query. Only the streamed
+ * entities are detached, including one the caller already held; entities loaded with them, e.g. eager associations,
+ * stay managed unless the association cascades {@code DETACH}.
+ */
+@Slf4j
+final class StreamUtils {
+
+	private StreamUtils() {
+	}
+
+	static <T> Stream<T> stream(EntityManager entityManager, Class<T> entityClass, Specification<T> specification, int fetchSize) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<T> query = cb.createQuery(entityClass);
+		Root<T> root = query.from(entityClass);
+		Predicate predicate = specification.toPredicate(root, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		TypedQuery<T> typedQuery = entityManager.createQuery(query)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.setHint(HibernateHints.HINT_CACHEABLE, false)
+				.setHint(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS)
+				.setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+		if (entityManager.isJoinedToTransaction()) {
+			entityManager.flush();
+		}
+		Stream<T> results = typedQuery.getResultStream();
+		return StreamSupport.stream(new DetachingSpliterator<>(results.iterator(), entityManager, fetchSize), false)
+				.onClose(results::close);
+	}
+
+	/**
+	 * Detaches the streamed entities after every {@code interval} entities have been passed downstream.
+	 */
+	private static final class DetachingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+		private final Iterator<T> iterator;
+		private final EntityManager entityManager;
+		private final int interval;
+		private final List<T> streamed;
+		private long count;
+
+		DetachingSpliterator(Iterator<T> iterator, EntityManager entityManager, int interval) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.iterator = iterator;
+			this.entityManager = entityManager;
+			this.interval = interval;
+			this.streamed = new ArrayList<>(interval);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (!iterator.hasNext()) {
+				return false;
+			}
+			T entity = iterator.next();
+			action.accept(entity);
+			streamed.add(entity);
+			count++;
+			if (streamed.size() == interval) {
+				log.debug("Streamed {} entities, detaching the last {}", count, streamed.size());
+				streamed.forEach(entityManager::detach);
+				streamed.clear();
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -21,6 +21,7 @@ import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -85,6 +86,33 @@ class RSQLJPASupportPostgresJsonTest {
         entities.forEach(e -> e.setId(null));
     }
 
+    @ParameterizedTest
+    @MethodSource("data")
+    void testJsonSearchParameterized(List<PostgresJsonEntity> entities, String rsql, List<PostgresJsonEntity> expected) {
+        //given
+        repository.saveAllAndFlush(entities);
+        SqlStatements.clear();
+        List<PostgresJsonEntity> inlined = repository.findAll(toSpecification(rsql));
+        String inlinedSql = SqlStatements.last();
+
+        //when
+        SqlStatements.clear();
+        List<PostgresJsonEntity> result = repository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).parameterized(true).build()));
+        String sql = SqlStatements.last();
+
+        //then
+        assertThat(result)
+                .hasSameSizeAs(expected)
+                .containsExactlyInAnyOrderElementsOf(expected)
+                .containsExactlyInAnyOrderElementsOf(inlined);
+        assertThat(sql).doesNotContain("'$");
+        if (inlinedSql.contains("'$")) {
+            assertThat(sql).contains("jsonpath(?)");
+        }
+
+        entities.forEach(e -> e.setId(null));
+    }
+
     @ParameterizedTest
     @MethodSource("temporalData")
     void testJsonSearchOfTemporal(List<PostgresJsonEntity> entities, String rsql, List<PostgresJsonEntity> expected) {
@@ -118,6 +146,27 @@ class RSQLJPASupportPostgresJsonTest {
         entities.forEach(e -> e.setId(null));
     }
 
+    @ParameterizedTest
+    @MethodSource("sortByText")
+    void testJsonFindWindow(List<PostgresJsonEntity> entities, String sortQuery, List<PostgresJsonEntity> expected) {
+        //given
+        repository.saveAllAndFlush(entities);
+
+        //when
+        KeysetWindow<PostgresJsonEntity> window = RSQLJPASupport.findWindow(PostgresJsonEntity.class, null, sortQuery, null, 2);
+        List<PostgresJsonEntity> result = new ArrayList<>(window.getContent());
+        while (window.hasNext()) {
+            window = RSQLJPASupport.findWindow(PostgresJsonEntity.class, null, sortQuery, window.getNextCursor(), 2);
+            result.addAll(window.getContent());
+        }
+
+        //then
+        assertThat(result)
+                .hasSameSizeAs(expected)
+                .containsExactlyElementsOf(expected);
+        entities.forEach(e -> e.setId(null));
+    }
+
     @ParameterizedTest
     @MethodSource("jsonRelation")
     void testJsonSearchOnRelation(List<JsonbEntity> jsonbEntities, String rsql, List<JsonbEntity> expected) {
@@ -16,6 +16,7 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.stream.Stream;
 
 import io.github.perplexhub.rsql.custom.CustomType;
 import io.github.perplexhub.rsql.model.City;
@@ -30,28 +31,42 @@ import io.github.perplexhub.rsql.repository.jpa.ProjectRepository;
 import io.github.perplexhub.rsql.repository.jpa.custom.CustomTypeRepository;
 import io.github.perplexhub.rsql.custom.EntityWithCustomType;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
 import io.github.perplexhub.rsql.model.Status;
+import io.github.perplexhub.rsql.model.Ticket;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.groups.Tuple;
+import org.hibernate.Session;
+import org.hibernate.query.sqm.tree.SqmCacheable;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.MultiValueMap;
 
+import cz.jirutka.rsql.parser.RSQLParserException;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
 import io.github.perplexhub.rsql.model.Company;
 import io.github.perplexhub.rsql.model.Role;
 import io.github.perplexhub.rsql.model.TrunkGroup;
@@ -59,6 +74,7 @@ import io.github.perplexhub.rsql.model.User;
 import io.github.perplexhub.rsql.repository.jpa.CompanyRepository;
 import io.github.perplexhub.rsql.repository.jpa.TrunkGroupRepository;
 import io.github.perplexhub.rsql.repository.jpa.UserRepository;
+import io.github.perplexhub.rsql.repository.jpa.UserRoleGrantRepository;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -86,6 +102,9 @@ class RSQLJPASupportTest {
 	@Autowired
 	AccountRepository accountRepository;
 
+	@Autowired
+	private UserRoleGrantRepository userRoleGrantRepository;
+
     @Autowired
 	EntityManager em;
 
@@ -191,6 +210,193 @@ class RSQLJPASupportTest {
 		assertThat(rsql, count, is(1L));
 	}
 
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"projects.id==1,projects.id==2|2|1",
+			"projects.id==1;projects.name==someProjectName|1|1",
+			"projects.id==1;projects.id==2|0|0",
+			"projects.id=in=(1,2,3),name==March|4|3",
+			"projects.departmentName==someDepartmentName|1|1",
+			"projects.id=isnull=|9|9",
+			"projects.id=isnull=,projects.id==4|10|10",
+	})
+	final void testExistsSubqueries(String rsql, long joinCount, long existsCount) {
+		long count = userRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(joinCount));
+
+		count = userRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).existsSubqueries(true).build()));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(existsCount));
+
+		count = userRepository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).existsHints(Set.of("User.projects")).build())).size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(existsCount));
+	}
+
+	@Test
+	final void testExistsSubqueriesElementCollection() {
+		String rsql = "tags==tech;tags==startup";
+		long count = companyRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).existsSubqueries(true).build()));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(0L));
+
+		rsql = "tags==tech,tags==startup";
+		count = companyRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).existsSubqueries(true).build()));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(4L));
+
+		rsql = "bigTags.tag==tech;name!=null";
+		count = companyRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).existsSubqueries(true).build()));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(4L));
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"projects.id==1,projects.id==2|2|1|true",
+			"projects.id=in=(1,2,3),name==March|4|3|true",
+			"company.id==1|2|2|false",
+			"company.code==demo,city.name==Hong*|2|2|false",
+			"id=in=(1,2,3)|3|3|false",
+	})
+	final void testAutoDistinct(String rsql, long joinCount, long autoDistinctCount, boolean distinct) {
+		boolean[] queryDistinct = new boolean[1];
+		Specification<User> isDistinct = (root, query, cb) -> {
+			queryDistinct[0] = query.isDistinct();
+			return null;
+		};
+
+		long count = userRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(joinCount));
+
+		Specification<User> specification = toSpecification(QuerySupport.builder().rsqlQuery(rsql).autoDistinct(true).build());
+		count = userRepository.count(specification);
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(autoDistinctCount));
+		userRepository.findAll(specification.and(isDistinct));
+		assertThat(rsql, queryDistinct[0], is(distinct));
+
+		specification = toSpecification(QuerySupport.builder().rsqlQuery(rsql).autoDistinct(true).existsSubqueries(true).build());
+		userRepository.findAll(specification.and(isDistinct));
+		assertThat(rsql, queryDistinct[0], is(false));
+
+		specification = toSpecification(QuerySupport.builder().rsqlQuery(rsql).distinct(true).autoDistinct(true).build());
+		userRepository.findAll(specification.and(isDistinct));
+		assertThat(rsql, queryDistinct[0], is(true));
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"company.id==1|2|0",
+			"company==1|2|0",
+			"company.id=in=(1,2)|6|0",
+			"company=in=(1,2)|6|0",
+			"company=out=(1,2)|6|0",
+			"company=null=|0|0",
+			"company=notnull=|12|0",
+			"city.parent==1|0|1",
+			"company.name==Demo|0|1",
+	})
+	final void testForeignKeyShortcut(String rsql, long count, long joinCount) {
+		SqlStatements.clear();
+		long result = userRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, result, SqlStatements.last());
+		assertThat(rsql, result, is(count));
+		assertThat(rsql, SqlStatements.lastJoinCount(), is(joinCount));
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"grantor.id==1|1|0",
+			"grantor==1|1|0",
+			"grantor=in=(1,3)|2|0",
+			"grantor=null=|1|0",
+			"grantor=notnull=|2|0",
+			"grantor.name==January|1|1",
+			"grantor.name==January,id==3|2|1",
+			"userRole.id.userId==2|1|0",
+			"userRole.id.roleId==2|2|0",
+			"userRole=null=|0|0",
+			"userRole.role.code==admin|2|2",
+	})
+	final void testForeignKeyShortcutOneToOneAndCompositeId(String rsql, long count, long joinCount) {
+		SqlStatements.clear();
+		long result = userRoleGrantRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, result, SqlStatements.last());
+		assertThat(rsql, result, is(count));
+		assertThat(rsql, SqlStatements.lastJoinCount(), is(joinCount));
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"projects.name==someProjectName*|0|1",
+			"projects.name==someProjectName*;name==January|0|1",
+			"projects.name=in=(someProjectName,x);projects.id=gt=0|0|1",
+			"projects.projectTag.id==3;company.id==2|0|1",
+			"projects.name==someProjectName*,name==March|1|1",
+			"projects.name=null=|1|1",
+			"projects.name!=someProjectName|1|1",
+			"projects.name==someProjectName*;projects.id=out=(2)|1|1",
+			"(projects.name==someProjectName*;id==1),id==3|1|1",
+	})
+	final void testInferInnerJoins(String rsql, long leftJoins, long leftJoinsWithoutInference) {
+		SqlStatements.clear();
+		long count = userRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.last());
+		assertThat(rsql, SqlStatements.lastLeftJoinCount(), is(leftJoinsWithoutInference));
+
+		SqlStatements.clear();
+		long inferredCount = userRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).inferInnerJoins(true).build()));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, inferredCount, SqlStatements.last());
+		assertThat(rsql, inferredCount, is(count));
+		assertThat(rsql, SqlStatements.lastLeftJoinCount(), is(leftJoins));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "projects.id==''", "projects.id=in=(1,'')", "projects.id=='';name!=January" })
+	final void testInferInnerJoinsKeepsEmptyArgumentsLeft(String rsql) {
+		long count = userRepository.count(toSpecification(rsql));
+
+		SqlStatements.clear();
+		long inferredCount = userRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).inferInnerJoins(true).build()));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, inferredCount, SqlStatements.last());
+		assertThat(rsql, inferredCount, is(count));
+		assertThat(rsql, inferredCount, not(is(0L)));
+		assertThat(rsql, SqlStatements.lastLeftJoinCount(), is(1L));
+	}
+
+	@Test
+	final void testInferInnerJoinsKeepsJoinHints() {
+		String rsql = "projects.name==someProjectName*";
+		SqlStatements.clear();
+		long count = userRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql)
+				.joinHints(Map.of("User.projects", JoinType.LEFT)).inferInnerJoins(true).build()));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.last());
+		assertThat(rsql, SqlStatements.lastLeftJoinCount(), is(1L));
+
+		rsql = "grantor.name==January";
+		SqlStatements.clear();
+		count = userRoleGrantRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).inferInnerJoins(true).build()));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.last());
+		assertThat(rsql, count, is(1L));
+		assertThat(rsql, SqlStatements.lastLeftJoinCount(), is(0L));
+	}
+
+	@Test
+	final void testInferInnerJoinsWithOrComposedSpecification() {
+		Specification<User> other = toSpecification("name==April");
+		long count = userRepository.count(RSQLJPASupport.<User>toSpecification("projects.name==someProjectName*").or(other));
+		assertThat(count, is(userRepository.count(toSpecification("projects.name==someProjectName*,name==April"))));
+
+		// the inference only sees its own query, so the inner join drops the users the other specification matches
+		long inferredCount = userRepository.count(RSQLJPASupport.<User>toSpecification(QuerySupport.builder()
+				.rsqlQuery("projects.name==someProjectName*").inferInnerJoins(true).build()).or(other));
+		log.info("count: {}, inferred count: {}", count, inferredCount);
+		assertThat(inferredCount, is(count - 1));
+	}
+
 	@Test
 	final void testJoinHintsRelationIsNullOrRelationPropertyIsSomeValues() {
 		String rsql = "city.name=='Hong Kong Island',city.parent=na=''";
@@ -551,6 +757,153 @@ class RSQLJPASupportTest {
 		assertThat(rsql, count, is(7L));
 	}
 
+	@ParameterizedTest
+	@EnumSource(InListBinding.class)
+	final void testInListBinding(InListBinding inListBinding) {
+		String rsql = "company.id=in=(2,3,4)";
+		List<User> users = userRepository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).inListBinding(inListBinding).build()));
+		long count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(7L));
+
+		rsql = "company.id=out=(2,3,4)";
+		users = userRepository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).inListBinding(inListBinding).build()));
+		count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(5L));
+
+		rsql = "name=in=(February,nobody,'no one')";
+		users = userRepository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).inListBinding(inListBinding).build()));
+		count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(1L));
+	}
+
+	@Test
+	final void testInListBindingArrayUsesAny() {
+		String rsql = "company.id=in=(2,3,4)";
+		SqlStatements.clear();
+		long count = userRepository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).inListBinding(InListBinding.ARRAY).build())).size();
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.first());
+		assertThat(rsql, count, is(7L));
+		assertThat(SqlStatements.first(), containsString("= any(?)"));
+		assertThat(SqlStatements.first(), not(containsString("array_contains")));
+	}
+
+	@Test
+	final void testLargeInList() {
+		String rsql = "company.id=in=(2,3,4,100,101,102,103)";
+		QuerySupport.QuerySupportBuilder querySupport = QuerySupport.builder().largeInListThreshold(2);
+		SqlStatements.clear();
+		long count = userRepository.findAll(toSpecification(querySupport.rsqlQuery(rsql).build())).size();
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.first());
+		assertThat(rsql, count, is(7L));
+		assertThat(SqlStatements.first(), not(containsString("unnest")));
+
+		rsql = "company.id=out=(2,3,4,100,101,102,103)";
+		count = userRepository.findAll(toSpecification(querySupport.rsqlQuery(rsql).build())).size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(5L));
+
+		Map<EntityManager, Database> entityManagerDatabase = RSQLVisitorBase.getEntityManagerDatabase();
+		RSQLVisitorBase.setEntityManagerDatabase(Map.of(RSQLVisitorBase.findEntityManager(User.class), Database.H2));
+		try {
+			rsql = "company.id=in=(2,3,4,100,101,102,103)";
+			SqlStatements.clear();
+			count = userRepository.findAll(toSpecification(querySupport.rsqlQuery(rsql).build())).size();
+			log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.first());
+			assertThat(rsql, count, is(7L));
+			assertThat(SqlStatements.first(), containsString("unnest"));
+
+			rsql = "company.id=out=(2,3,4,100,101,102,103)";
+			SqlStatements.clear();
+			count = userRepository.findAll(toSpecification(querySupport.rsqlQuery(rsql).build())).size();
+			log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.first());
+			assertThat(rsql, count, is(5L));
+			assertThat(SqlStatements.first(), containsString("unnest"));
+
+			rsql = "name=in=(February,nobody,'no one')";
+			count = userRepository.count(toSpecification(querySupport.rsqlQuery(rsql).build()));
+			log.info("rsql: {} -> count: {}", rsql, count);
+			assertThat(rsql, count, is(1L));
+		} finally {
+			RSQLVisitorBase.setEntityManagerDatabase(entityManagerDatabase);
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"company.id==2,company.id==3,company.id==4|7",
+			"id=ge=2;id=le=5|4",
+			"id==1;id==2|0",
+			"name==January;name!=January|0",
+			"(id==1;id==2),company.id==5|3",
+			"projects.id==1,projects.id==2|2",
+	})
+	final void testSimplify(String rsql, long expected) {
+		long count = userRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).simplify(true).build()));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(expected));
+		assertThat(rsql, userRepository.count(toSpecification(rsql)), is(expected));
+	}
+
+	@Test
+	final void testSimplifyRandomQueries() {
+		List<Map<String, Integer>> rows = userRepository.findAll().stream().map(user -> {
+			Map<String, Integer> row = new HashMap<>();
+			row.put("id", user.getId());
+			row.put("company.id", user.getCompany() != null ? user.getCompany().getId() : null);
+			row.put("city.id", user.getCity() != null ? user.getCity().getId() : null);
+			return row;
+		}).toList();
+		Random random = new Random(20240101);
+		for (int i = 0; i < 200; i++) {
+			Node node = RandomQueries.randomQuery(random);
+			String rsql = RandomQueries.toRsql(node);
+			long expected = rows.stream().filter(row -> Boolean.TRUE.equals(RandomQueries.evaluate(node, row))).count();
+			long count = userRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).simplify(true).build()));
+			assertThat(rsql, count, is(expected));
+		}
+	}
+
+	@Test
+	final void testInSet() {
+		String handle = RSQLCommonSupport.getIdSetStore().put(List.of(2, 3, 4));
+		String rsql = "company.id=inset=" + handle;
+		List<User> users = userRepository.findAll(toSpecification(rsql));
+		long count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(7L));
+
+		rsql = "company.id=outset=" + handle;
+		users = userRepository.findAll(toSpecification(rsql));
+		count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(5L));
+
+		rsql = "company.id=inset=" + handle;
+		count = userRepository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).largeInListThreshold(2).build())).size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(7L));
+
+		String names = RSQLCommonSupport.getIdSetStore().put(List.of("February", "nobody"));
+		rsql = "name=inset=" + names;
+		count = userRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(1L));
+
+		RSQLCommonSupport.getIdSetStore().remove(names);
+		assertThatExceptionOfType(UnknownIdSetException.class)
+				.isThrownBy(() -> userRepository.findAll(toSpecification("name=inset=" + names)))
+				.satisfies(e -> assertEquals(names, e.getHandle()));
+
+		String overflow = RSQLCommonSupport.getIdSetStore().put(List.of(1L, 1L << 32));
+		assertThatExceptionOfType(ConversionException.class)
+				.isThrownBy(() -> userRepository.findAll(toSpecification("id=inset=" + overflow)))
+				.withMessageContaining(Integer.class.getName())
+				.withCauseInstanceOf(ArithmeticException.class);
+	}
+
 	@ParameterizedTest
 	@ValueSource(strings = {
 			"name=isnull=''",
@@ -634,6 +987,60 @@ class RSQLJPASupportTest {
 		assertThat(rsql, count, is(6L));
 	}
 
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"name=sw=Demo|1",
+			"name=startswith=demo|0",
+			"name=isw=demo|1",
+			"name=istartswith=DEMO|1",
+			"name=ew=Inc|2",
+			"name=endswith=inc|0",
+			"name=iew=INC|2",
+			"name=iendswith=inc|2",
+			"code=sw=x_|1",
+			"code=sw=x%|1",
+			"code=ew=\\1|1",
+			"code=sw=x|4",
+			"code=sw=%|0",
+	})
+	@Transactional
+	void testStartsWithEndsWith(String rsql, long count) {
+		int id = 100;
+		for (String code : List.of("x_1", "xy1", "x%1", "x\\1")) {
+			Company company = new Company();
+			company.setId(id++);
+			company.setCode(code);
+			companyRepository.save(company);
+		}
+		assertThat(rsql, companyRepository.count(toSpecification(rsql)), is(count));
+		assertThat(rsql, companyRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).likeEscapeCharacter('$').build())), is(count));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "name=isw=demo", "name=iew=INC" })
+	void testIgnoreCaseStartsWithEndsWithUsesUpper(String rsql) {
+		SqlStatements.clear();
+		long count = companyRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.last());
+		Assertions.assertThat(SqlStatements.last()).containsPattern("upper\\(\\w+\\.name\\) like upper\\(\\?\\)").doesNotContain("ilike");
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"name=like=Hello*|0|1",
+			"name=like=*Inc|0|2",
+			"name=like=Inc|2|2",
+			"name=ilike=*inc|0|2",
+			"name=ilike=d*l|0|1",
+			"name=notlike=*Inc|6|4",
+			"name=inotlike=hello*|6|5",
+	})
+	void testLikeWildcards(String rsql, long count, long countWithWildcards) {
+		assertThat(rsql, companyRepository.count(toSpecification(rsql)), is(count));
+		assertThat(rsql, companyRepository.count(toSpecification(QuerySupport.builder().rsqlQuery(rsql).likeWildcards(true).build())),
+				is(countWithWildcards));
+	}
+
 	@Test
 	@Transactional
 	void testEscapeForUnderscore() {
@@ -971,6 +1378,38 @@ class RSQLJPASupportTest {
 		assertThat(rsql, count, is(1L));
 	}
 
+	@Test
+	final void testFunctionStaticArgumentParameterized() {
+		String rsql = "@concat[@upper[code]|#123]=='HELLO123'";
+		QuerySupport querySupport = QuerySupport.builder()
+				.rsqlQuery(rsql)
+				.procedureWhiteList(List.of("concat", "upper"))
+				.parameterized(true)
+				.build();
+		List<Company> companies = companyRepository.findAll(toSpecification(querySupport));
+		long count = companies.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(1L));
+
+		assertThat(isSameQueryPlan("@concat[@upper[code]|#123]=='HELLO123'", "@concat[@upper[code]|#456]=='WORLD456'", true), is(true));
+		assertThat(isSameQueryPlan("@concat[@upper[code]|#123]=='HELLO123'", "@concat[@upper[code]|#456]=='WORLD456'", false), is(false));
+	}
+
+	private boolean isSameQueryPlan(String rsql1, String rsql2, boolean parameterized) {
+		CriteriaQuery<?>[] queries = Stream.of(rsql1, rsql2).map(rsql -> {
+			Specification<Company> specification = toSpecification(QuerySupport.builder()
+					.rsqlQuery(rsql)
+					.procedureWhiteList(List.of("concat", "upper"))
+					.parameterized(parameterized)
+					.build());
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<Company> query = cb.createQuery(Company.class);
+			Root<Company> root = query.from(Company.class);
+			return query.where(specification.toPredicate(root, query, cb));
+		}).toArray(CriteriaQuery<?>[]::new);
+		return ((SqmCacheable) queries[0]).isCompatible(queries[1]);
+	}
+
 	@Test
 	final void testFunctionStaticWhitespaceAsSpace() {
 		String rsql = "@concat[@upper[code]|#12\t3]=='HELLO12 3'";
@@ -1075,6 +1514,85 @@ class RSQLJPASupportTest {
 				});
 	}
 
+	@Test
+	final void testBlacklistAppliedToResolvedPropertyPath() {
+		String rsql = "userRoles.role.code=='admin'";
+		List<User> users = userRepository.findAll(toSpecification(rsql));
+		assertThat(rsql, users.size(), is(3));
+
+		addPropertyBlacklist(Role.class, "code");
+		final Specification<User> specification = toSpecification(rsql);
+		assertThatExceptionOfType(PropertyBlacklistedException.class)
+				.isThrownBy(() -> userRepository.findAll(specification))
+				.satisfies(e -> {
+					assertEquals("code", e.getName());
+					assertEquals(e.getType(), Role.class);
+				});
+	}
+
+	@Test
+	final void testPropertyPathMapperChangeAfterResolution() {
+		Map<String, String> propertyPathMapper = new HashMap<>();
+		propertyPathMapper.put("n", "name");
+		List<User> users = userRepository.findAll(toSpecification("n=='February'", propertyPathMapper));
+		assertThat(users.size(), is(1));
+
+		propertyPathMapper.put("n", "company.name");
+		users = userRepository.findAll(toSpecification("n=='Demo Central'", propertyPathMapper));
+		assertThat(users.size(), is(2));
+	}
+
+	@Test
+	final void testNestedLogicalNodes() {
+		String rsql = "(id==1,(id==2,id==3)),(id==4;(name!=null;id=in=(4,5)))";
+		long count = userRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(4L));
+
+		rsql = "id=ge=1;(id=le=7;(id!=2;id!=3)),id==1";
+		count = userRepository.count(toSpecification(rsql));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(5L));
+	}
+
+	@Test
+	final void testManagedTypeIndex() {
+		ManagedTypeIndex index = RSQLVisitorBase.getManagedTypeIndex();
+		assertThat(index.getManagedType(User.class), is(em.getMetamodel().managedType(User.class)));
+		assertThat(index.getManagedType(String.class), nullValue());
+		assertThat(RSQLVisitorBase.findEntityManager(User.class), notNullValue());
+		assertThat(RSQLVisitorBase.findEntityManager(String.class), nullValue());
+
+		RSQLVisitorBase.setEntityManagerMap(getEntityManagerMap());
+		assertThat(RSQLVisitorBase.getManagedTypeIndex(), not(sameInstance(index)));
+		assertThat(RSQLVisitorBase.getManagedTypeIndex().size(), is(index.size()));
+	}
+
+	@Test
+	final void testGlobalAccessPolicyPublishedOnChange() {
+		final Specification<User> specification = toSpecification("name=='February'");
+		assertThat(userRepository.findAll(specification).size(), is(1));
+
+		addPropertyWhitelist(User.class, "id");
+		assertThatExceptionOfType(PropertyNotWhitelistedException.class)
+				.isThrownBy(() -> userRepository.findAll(specification));
+
+		getPropertyWhitelist().get(User.class).add("name");
+		assertThat(userRepository.findAll(specification).size(), is(1));
+		getPropertyWhitelist().get(User.class).remove("name");
+		assertThatExceptionOfType(PropertyNotWhitelistedException.class)
+				.isThrownBy(() -> userRepository.findAll(specification));
+
+		final Specification<User> querySpecification = toSpecification(QuerySupport.builder()
+				.rsqlQuery("name=='February'")
+				.propertyWhitelist(Map.of(User.class, List.of("id", "name")))
+				.build());
+		assertThat(userRepository.findAll(querySpecification).size(), is(1));
+
+		getPropertyWhitelist().clear();
+		assertThat(userRepository.findAll(specification).size(), is(1));
+	}
+
 	@Test
 	final void testBlacklist() {
 		addPropertyBlacklist(User.class, "name");
@@ -1198,6 +1716,273 @@ class RSQLJPASupportTest {
 			.containsExactly(6, 9, 7, 8);
 	}
 
+	@Test
+	void testSortAutoDistinct() {
+		boolean[] queryDistinct = new boolean[1];
+		Specification<User> isDistinct = (root, query, cb) -> {
+			queryDistinct[0] = query.isDistinct();
+			return null;
+		};
+		Specification<User> filter = toSpecification("projects.id=in=(1,2,3)");
+
+		userRepository.findAll(filter.and(toSort(SortSupport.builder().sortQuery("id,desc").autoDistinct(true).build())).and(isDistinct));
+		Assertions.assertThat(queryDistinct[0]).isTrue();
+
+		userRepository.findAll(filter.and(toSort(SortSupport.builder().sortQuery("company.name,desc").autoDistinct(true).build())).and(isDistinct));
+		Assertions.assertThat(queryDistinct[0]).isFalse();
+
+		userRepository.findAll(RSQLJPASupport.<User>toSpecification("id=in=(1,2,3)")
+				.and(toSort(SortSupport.builder().sortQuery("id,desc").autoDistinct(true).build())).and(isDistinct));
+		Assertions.assertThat(queryDistinct[0]).isFalse();
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"company.code==hello|company.name,desc|2|1|2",
+			"company.code==hello,name==May|company.name,desc;name,asc|3|1|2",
+			"city.name=='Hong Kong Island',company.code==demo|city.name,asc;company.name,asc|3|2|4",
+			"city.parent.name=='Hong Kong'|city.parent.name,asc;city.name,desc|0|2|4",
+			"projects.name==someProjectName*|company.name,asc|3|2|2",
+	})
+	void testSpecificationWithSortSharesJoins(String rsql, String sort, long count, long joinCount, long separateJoinCount) {
+		Map<String, JoinType> joinHints = Map.of("User.company", JoinType.LEFT, "User.city", JoinType.LEFT, "City.parent", JoinType.LEFT);
+		SqlStatements.clear();
+		List<User> users = userRepository.findAll(toSpecification(QuerySupport.builder().rsqlQuery(rsql).joinHints(joinHints).build(),
+				SortSupport.builder().sortQuery(sort).build()));
+		log.info("rsql: {}, sort: {} -> count: {}, sql: {}", rsql, sort, users.size(), SqlStatements.first());
+		assertThat(rsql, (long) users.size(), is(count));
+		assertThat(rsql, SqlStatements.firstJoinCount(), is(joinCount));
+
+		SqlStatements.clear();
+		users = userRepository.findAll(RSQLJPASupport.<User>toSort(sort).and(toSpecification(rsql, Map.of(), joinHints)));
+		log.info("rsql: {}, sort: {} -> count: {}, sql: {}", rsql, sort, users.size(), SqlStatements.first());
+		assertThat(rsql, SqlStatements.firstJoinCount(), is(separateJoinCount));
+	}
+
+	@Test
+	void testFindFields() {
+		SqlStatements.clear();
+		List<jakarta.persistence.Tuple> rows = findFields(User.class, "id, name,company.name,city.name", "id=le=5;company.code=in=(hello,World)", "company.name,desc;id,asc");
+		log.info("sql: {}", SqlStatements.last());
+		Assertions.assertThat(SqlStatements.last()).doesNotContain("create_date");
+		Assertions.assertThat(SqlStatements.lastJoinCount()).isEqualTo(2);
+		Assertions.assertThat(SqlStatements.lastLeftJoinCount()).isEqualTo(1);
+		Assertions.assertThat(rows)
+				.extracting(row -> row.get("id"), row -> row.get("name"), row -> row.get("company.name"), row -> row.get("city.name"))
+				.containsExactly(
+						Tuple.tuple(3, "March", "World Inc", "Hong Kong Island"),
+						Tuple.tuple(4, "April", "World Inc", null),
+						Tuple.tuple(5, "May", "World Inc", null),
+						Tuple.tuple(1, "January", "Hello Inc", "Moon"),
+						Tuple.tuple(2, "February", "Hello Inc", "Hong Kong SAR"));
+	}
+
+	@Test
+	void testFindFieldsAccessControl() {
+		QuerySupport query = QuerySupport.builder()
+				.propertyBlacklist(Map.of(Company.class, List.of("code")))
+				.build();
+		assertThrows(PropertyBlacklistedException.class, () -> findFields(User.class, "name,company.code", query, null));
+		assertThrows(UnknownPropertyException.class, () -> findFields(User.class, "name,unknown", query, null));
+
+		Map<String, String> propertyPathMapper = Map.of("companyName", "company.name");
+		List<jakarta.persistence.Tuple> rows = findFields(User.class, "companyName",
+				QuerySupport.builder().rsqlQuery("id==1").propertyPathMapper(propertyPathMapper).build(), null);
+		Assertions.assertThat(rows).extracting(row -> row.get("companyName")).containsExactly("Hello Inc");
+	}
+
+	@Test
+	@Transactional
+	void testStreamKeepsPersistenceContextFlat() {
+		int rows = 100_000;
+		int fetchSize = 500;
+		em.createNativeQuery("insert into role(id, code) select x, 'bulk' || x from system_range(1000, " + (1000 + rows - 1) + ")").executeUpdate();
+		Session session = em.unwrap(Session.class);
+		Role held = em.find(Role.class, 1);
+
+		long[] streamed = { 0, 999, 0 }; // count, last id, max entities in the persistence context
+		try (Stream<Role> roles = stream(Role.class, QuerySupport.builder().rsqlQuery("code==bulk*").build(),
+				SortSupport.builder().sortQuery("id,asc").build(), fetchSize)) {
+			roles.forEach(role -> {
+				Assertions.assertThat(role.getId()).isEqualTo((int) streamed[1] + 1);
+				streamed[0]++;
+				streamed[1] = role.getId();
+				streamed[2] = Math.max(streamed[2], session.getStatistics().getEntityCount());
+			});
+		}
+		log.info("streamed: {}, max entities in the persistence context: {}", streamed[0], streamed[2]);
+		assertThat(streamed[0], is((long) rows));
+		Assertions.assertThat(streamed[2]).isLessThanOrEqualTo(fetchSize + 1);
+		Assertions.assertThat(em.contains(held)).isTrue();
+	}
+
+	@Test
+	void testScroll() {
+		QuerySupport query = QuerySupport.builder().rsqlQuery("id=le=10").build();
+		List<String> names = new ArrayList<>();
+		Window<User> window = scroll(userRepository, query, Sort.by("name"), 3, ScrollPosition.keyset());
+		names.addAll(window.stream().map(User::getName).toList());
+		while (window.hasNext()) {
+			window = scroll(userRepository, query, Sort.by("name"), 3, window.positionAt(window.size() - 1));
+			names.addAll(window.stream().map(User::getName).toList());
+		}
+		Assertions.assertThat(names)
+				.hasSize(10)
+				.isSortedAccordingTo(String::compareTo);
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"|",
+			"id,desc|",
+			"status,desc;name,asc|",
+			"company.name,asc,ic;createDate,desc|",
+			"city.name,desc|",
+			"city.name,asc;status,asc|id=le=8",
+	})
+	void testFindWindow(String sortQuery, String rsql) {
+		List<User> expected = userRepository.findAll(RSQLJPASupport.<User>toSpecification(rsql).and(toSort(sortQuery))).stream()
+				.sorted(userComparator(sortQuery))
+				.toList();
+
+		for (int size : new int[] { 1, 3, 5, expected.size() }) {
+			List<User> users = new ArrayList<>();
+			KeysetWindow<User> window = findWindow(User.class, rsql, sortQuery, null, size);
+			users.addAll(window.getContent());
+			while (window.hasNext()) {
+				Assertions.assertThat(window.getContent()).hasSize(size);
+				window = findWindow(User.class, rsql, sortQuery, window.getNextCursor(), size);
+				users.addAll(window.getContent());
+			}
+			Assertions.assertThat(users).as("%s by %d", sortQuery, size).extracting(User::getId)
+					.containsExactlyElementsOf(expected.stream().map(User::getId).toList());
+		}
+	}
+
+	/**
+	 * The order of a keyset window: {@code null} as the greatest value, then the id.
+	 */
+	private static Comparator<User> userComparator(String sortQuery) {
+		Comparator<User> comparator = (a, b) -> 0;
+		boolean ascending = true;
+		if (sortQuery != null) {
+			for (String sort : sortQuery.split(";")) {
+				String[] parts = sort.split(",");
+				Comparator<String> values = parts.length > 2 ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+				java.util.function.Function<User, String> key = switch (parts[0]) {
+					case "id" -> user -> String.format("%05d", user.getId());
+					case "status" -> user -> user.getStatus().name();
+					case "name" -> User::getName;
+					case "createDate" -> user -> String.format("%020d", user.getCreateDate().getTime());
+					case "company.name" -> user -> user.getCompany().getName();
+					case "city.name" -> user -> user.getCity() == null ? null : user.getCity().getName();
+					case "city.id" -> user -> user.getCity() == null ? null : String.format("%05d", user.getCity().getId());
+					default -> throw new IllegalArgumentException(parts[0]);
+				};
+				ascending = parts[1].equals("asc");
+				Comparator<User> next = Comparator.comparing(key, Comparator.nullsLast(values));
+				comparator = comparator.thenComparing(ascending ? next : next.reversed());
+			}
+		}
+		Comparator<User> id = Comparator.comparing(User::getId);
+		return comparator.thenComparing(ascending ? id : id.reversed());
+	}
+
+	@Test
+	@Transactional
+	void testFindWindowWithRowValues() {
+		List<Ticket> tickets = Stream.of(Status.ACTIVE, Status.FINISHED, Status.STARTED, Status.FINISHED, Status.ACTIVE, Status.CANCELLED, Status.STARTED)
+				.map(Ticket::of)
+				.toList();
+		tickets.forEach(em::persist);
+		List<Long> expected = tickets.stream()
+				.sorted(Comparator.comparing(Ticket::getStatus, Comparator.comparing(Status::name)).thenComparing(Ticket::getId).reversed())
+				.map(Ticket::getId)
+				.toList();
+
+		Map<EntityManager, Database> entityManagerDatabase = RSQLVisitorBase.getEntityManagerDatabase();
+		RSQLVisitorBase.setEntityManagerDatabase(Map.of(RSQLVisitorBase.findEntityManager(Ticket.class), Database.H2));
+		try {
+			KeysetWindow<Ticket> window = findWindow(Ticket.class, null, "status,desc", null, 3);
+			List<Long> ids = new ArrayList<>(window.getContent().stream().map(Ticket::getId).toList());
+			while (window.hasNext()) {
+				SqlStatements.clear();
+				window = findWindow(Ticket.class, null, "status,desc", window.getNextCursor(), 3);
+				log.info("sql: {}", SqlStatements.first());
+				Assertions.assertThat(SqlStatements.first()).containsPattern("\\(\\w+\\.status,\\s*\\w+\\.id\\)\\s*<");
+				ids.addAll(window.getContent().stream().map(Ticket::getId).toList());
+			}
+			Assertions.assertThat(ids).containsExactlyElementsOf(expected);
+		} finally {
+			RSQLVisitorBase.setEntityManagerDatabase(entityManagerDatabase);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "city.id,asc", "city.id,desc" })
+	void testFindWindowWithRowValuesOnNullableKey(String sortQuery) {
+		List<User> expected = userRepository.findAll(toSort(sortQuery)).stream().sorted(userComparator(sortQuery)).toList();
+		Assertions.assertThat(expected).anyMatch(user -> user.getCity() == null);
+
+		Map<EntityManager, Database> entityManagerDatabase = RSQLVisitorBase.getEntityManagerDatabase();
+		RSQLVisitorBase.setEntityManagerDatabase(Map.of(RSQLVisitorBase.findEntityManager(User.class), Database.H2));
+		try {
+			List<User> users = new ArrayList<>();
+			KeysetWindow<User> window = findWindow(User.class, null, sortQuery, null, 3);
+			users.addAll(window.getContent());
+			while (window.hasNext()) {
+				window = findWindow(User.class, null, sortQuery, window.getNextCursor(), 3);
+				users.addAll(window.getContent());
+			}
+			Assertions.assertThat(users).extracting(User::getId)
+					.containsExactlyElementsOf(expected.stream().map(User::getId).toList());
+		} finally {
+			RSQLVisitorBase.setEntityManagerDatabase(entityManagerDatabase);
+		}
+	}
+
+	@Test
+	void testFindWindowSharesJoins() {
+		String rsql = "company.code=in=(hello,World)";
+		String sortQuery = "company.name,desc";
+		List<User> expected = userRepository.findAll(RSQLJPASupport.<User>toSpecification(rsql).and(toSort(sortQuery))).stream()
+				.sorted(userComparator(sortQuery))
+				.toList();
+
+		SqlStatements.clear();
+		KeysetWindow<User> window = findWindow(User.class, rsql, sortQuery, null, 3);
+		log.info("rsql: {}, sort: {} -> sql: {}", rsql, sortQuery, SqlStatements.first());
+		Assertions.assertThat(SqlStatements.firstJoinCount()).isEqualTo(1);
+		List<User> users = new ArrayList<>(window.getContent());
+		while (window.hasNext()) {
+			SqlStatements.clear();
+			window = findWindow(User.class, rsql, sortQuery, window.getNextCursor(), 3);
+			Assertions.assertThat(SqlStatements.firstJoinCount()).isEqualTo(1);
+			users.addAll(window.getContent());
+		}
+		Assertions.assertThat(users).extracting(User::getId)
+				.containsExactlyElementsOf(expected.stream().map(User::getId).toList());
+	}
+
+	@Test
+	void testFindWindowInvalidCursor() {
+		KeysetWindow<User> window = findWindow(User.class, null, "name,desc", null, 5);
+
+		assertThrows(InvalidCursorException.class, () -> findWindow(User.class, null, "name,asc", window.getNextCursor(), 5));
+		assertThrows(InvalidCursorException.class, () -> findWindow(User.class, null, "name,desc", "not a cursor", 5));
+		assertThrows(InvalidCursorException.class, () -> findWindow(User.class, null, "name,desc", "AQAAAAAAAQE", 5));
+	}
+
+	@Test
+	void testFindWindowCursorWithLongText() {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		String text = "\u00e9".repeat(40_000);
+		List<SortUtils.SortKey> keys = List.of(new SortUtils.SortKey(cb.literal(text), true), new SortUtils.SortKey(cb.literal(1), true));
+
+		String cursor = KeysetUtils.encode(42, new Object[] { text, 1 });
+		Assertions.assertThat(KeysetUtils.decode(cursor, 42, keys, new RSQLJPAPredicateConverter(cb, null))).containsExactly(text, 1);
+	}
+
 	@Test
 	void testSortDefaultAsc() {
 		Specification<User> specification = toSort("name");
@@ -1284,6 +2069,29 @@ class RSQLJPASupportTest {
 				});
 	}
 
+	@Test
+	void testThrowParserExceptionWhenSpecificationIsCreated() {
+		assertThatExceptionOfType(RSQLParserException.class)
+				.isThrownBy(() -> RSQLJPASupport.toSpecification("name=unknown='demo'"));
+	}
+
+	@Test
+	void testParseOnceForContentAndCountQuery() {
+		RSQLParserCache defaultParserCache = getParserCache();
+		RSQLParserCache parserCache = new RSQLParserCache();
+		setParserCache(parserCache);
+		try {
+			Specification<User> specification = toSpecification("company.code=='demo'");
+			Page<User> users = userRepository.findAll(specification, PageRequest.of(0, 1));
+
+			assertThat(users.getTotalElements(), is(2L));
+			assertThat(parserCache.getStats().missCount(), is(1L));
+			assertThat(parserCache.getStats().hitCount(), is(0L));
+		} finally {
+			setParserCache(defaultParserCache);
+		}
+	}
+
 	@Test
 	void testSortWithFunction() {
 		SortSupport sortSupport = SortSupport.builder()
@@ -1402,6 +2210,7 @@ class RSQLJPASupportTest {
 	}
 
 	void resetDBBeforeTest() {
+		userRoleGrantRepository.deleteAll();
 		userRepository.deleteAll();
 		final int size = userRepository.findAll().size();
 		assertEquals(0, size);
@@ -4,7 +4,9 @@ import java.util.Map;
 
 import jakarta.persistence.EntityManager;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,9 +20,18 @@ import lombok.extern.slf4j.Slf4j;
 public class RSQLQueryDSLAutoConfiguration {
 
 	@Bean
-	public RSQLCommonSupport rsqlCommonSupport(Map<String, EntityManager> entityManagerMap) {
+	public RSQLCommonSupport rsqlCommonSupport(Map<String, EntityManager> entityManagerMap, ObjectProvider<RSQLParserCache> parserCacheProvider,
+			IdSetStore idSetStore) {
 		log.info("RSQLQueryDSLAutoConfiguration.rsqlCommonSupport(entityManagerMap:{})", entityManagerMap.size());
+		parserCacheProvider.ifAvailable(RSQLCommonSupport::setParserCache);
+		RSQLCommonSupport.setIdSetStore(idSetStore);
 		return new RSQLCommonSupport(entityManagerMap);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public IdSetStore idSetStore() {
+		return new InMemoryIdSetStore();
+	}
+
 }
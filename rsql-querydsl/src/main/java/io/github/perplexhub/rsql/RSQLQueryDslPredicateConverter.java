@@ -2,11 +2,12 @@ package io.github.perplexhub.rsql;
 
 import static io.github.perplexhub.rsql.RSQLOperators.*;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.BinaryOperator;
 
 import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.Attribute.PersistentAttributeType;
@@ -18,8 +19,10 @@ import com.querydsl.core.types.dsl.*;
 import cz.jirutka.rsql.parser.ast.AndNode;
 import cz.jirutka.rsql.parser.ast.ComparisonNode;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
 import cz.jirutka.rsql.parser.ast.OrNode;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,6 +31,12 @@ import lombok.extern.slf4j.Slf4j;
 public class RSQLQueryDslPredicateConverter extends RSQLVisitorBase<BooleanExpression, Path> {
 
 	private final @Getter Map<String, String> propertyPathMapper;
+	private @Setter InListBinding inListBinding = InListBinding.EXACT;
+	/**
+	 * Whether the {@code *} of a {@link RSQLOperators#LIKE} argument, or one of its variants, are its wildcards, e.g.
+	 * {@code like 'x%'} for {@code x*}, instead of the argument always being wrapped in {@code %}.
+	 */
+	private @Setter boolean likeWildcards;
 
 	public RSQLQueryDslPredicateConverter(Map<String, String> propertyPathMapper) {
 		super();
@@ -121,16 +130,20 @@ public class RSQLQueryDslPredicateConverter extends RSQLVisitorBase<BooleanExpre
 		} else if (RSQLQueryDslSupport.getValueTypeMap().containsKey(type)) {
 			type = RSQLQueryDslSupport.getValueTypeMap().get(type); // if you want to treat Enum as String and apply like search, etc
 		}
+		if (op.equals(IN_SET) || op.equals(NOT_IN_SET)) {
+			List<Object> ids = resolveIdSet(node.getArguments().get(0), type);
+			return inExpression(Expressions.path(type, entityClass, property), type, ids, op.equals(NOT_IN_SET), InListBinding.ARRAY);
+		}
 		if (node.getArguments().size() > 1) {
 			List<Object> listObject = new ArrayList<>();
 			for (String argument : node.getArguments()) {
 				listObject.add(convert(argument, type));
 			}
 			if (op.equals(IN)) {
-				return Expressions.path(type, entityClass, property).in(listObject);
+				return inExpression(Expressions.path(type, entityClass, property), type, listObject, false);
 			}
 			if (op.equals(NOT_IN)) {
-				return Expressions.path(type, entityClass, property).notIn(listObject);
+				return inExpression(Expressions.path(type, entityClass, property), type, listObject, true);
 			}
 			if (op.equals(BETWEEN) && listObject.size() == 2 && listObject.get(0) instanceof Comparable && listObject.get(1) instanceof Comparable) {
 				ComparableEntityPath comparableEntityPath = getComparableEntityPath(type, entityClass, property);
@@ -156,11 +169,11 @@ public class RSQLQueryDslPredicateConverter extends RSQLVisitorBase<BooleanExpre
 			}
 			if (op.equals(LIKE)) {
 				StringExpression stringExpression = getStringExpression(entityClass, property, isEnumPath(entityClass, property));
-				return stringExpression.like("%" + argument.toString() + "%");
+				return stringExpression.like(likePattern(argument.toString()));
 			}
 			if (op.equals(NOT_LIKE)) {
 				StringExpression stringExpression = getStringExpression(entityClass, property, isEnumPath(entityClass, property));
-				return stringExpression.like("%" + argument.toString() + "%").not();
+				return stringExpression.like(likePattern(argument.toString())).not();
 			}
 			if (op.equals(IGNORE_CASE)) {
 				StringExpression stringExpression = getStringExpression(entityClass, property, isEnumPath(entityClass, property));
@@ -168,11 +181,23 @@ public class RSQLQueryDslPredicateConverter extends RSQLVisitorBase<BooleanExpre
 			}
 			if (op.equals(IGNORE_CASE_LIKE)) {
 				StringExpression stringExpression = getStringExpression(entityClass, property, isEnumPath(entityClass, property));
-				return stringExpression.likeIgnoreCase("%" + argument.toString() + "%");
+				return stringExpression.likeIgnoreCase(likePattern(argument.toString()));
 			}
 			if (op.equals(IGNORE_CASE_NOT_LIKE)) {
 				StringExpression stringExpression = getStringExpression(entityClass, property, isEnumPath(entityClass, property));
-				return stringExpression.likeIgnoreCase("%" + argument.toString() + "%").not();
+				return stringExpression.likeIgnoreCase(likePattern(argument.toString())).not();
+			}
+			if (op.equals(STARTS_WITH)) {
+				return getStringExpression(entityClass, property, isEnumPath(entityClass, property)).startsWith(argument.toString());
+			}
+			if (op.equals(IGNORE_CASE_STARTS_WITH)) {
+				return getStringExpression(entityClass, property, isEnumPath(entityClass, property)).startsWithIgnoreCase(argument.toString());
+			}
+			if (op.equals(ENDS_WITH)) {
+				return getStringExpression(entityClass, property, isEnumPath(entityClass, property)).endsWith(argument.toString());
+			}
+			if (op.equals(IGNORE_CASE_ENDS_WITH)) {
+				return getStringExpression(entityClass, property, isEnumPath(entityClass, property)).endsWithIgnoreCase(argument.toString());
 			}
 			if (op.equals(EQUAL)) {
 				if (type.equals(String.class)) {
@@ -236,24 +261,79 @@ public class RSQLQueryDslPredicateConverter extends RSQLVisitorBase<BooleanExpre
 		throw new RSQLException("Unknown operator: " + op);
 	}
 
+	private BooleanExpression inExpression(SimplePath path, Class type, List<Object> values, boolean negate) {
+		return inExpression(path, type, values, negate, inListBinding);
+	}
+
+	/**
+	 * Creates the {@code in} or {@code not in} expression of the given arguments, bound according to the given
+	 * {@link InListBinding}. Array binding renders {@code path = any(?)} through the {@code rsql_in_array} function
+	 * registered by {@link RSQLFunctionContributor}, and falls back to padding where that function is not available.
+	 */
+	private BooleanExpression inExpression(SimplePath path, Class type, List<Object> values, boolean negate, InListBinding inListBinding) {
+		if (inListBinding == InListBinding.ARRAY && type != Object.class
+				&& HibernateSupport.supportsInArray(findEntityManager(path.getRoot().getType()))) {
+			Object[] array = values.toArray((Object[]) Array.newInstance(type, values.size()));
+			BooleanExpression contains = Expressions.booleanTemplate(RSQLFunctionContributor.IN_ARRAY + "({0}, {1})", path, Expressions.constant(array));
+			return negate ? contains.not() : contains;
+		}
+		List<Object> arguments = inListBinding == InListBinding.EXACT ? values : InListBinding.pad(values);
+		return negate ? path.notIn(arguments) : path.in(arguments);
+	}
+
 	@Override
 	public BooleanExpression visit(AndNode node, Path entityClass) {
 		log.debug("visit(node:{},param:{})", node, entityClass);
 
-		return node.getChildren().stream().map(n -> n.accept(this, entityClass)).collect(Collectors.reducing(BooleanExpression::and)).get();
+		return combine(visitChildren(node, entityClass, new ArrayList<>()), BooleanExpression::and);
 	}
 
 	@Override
 	public BooleanExpression visit(OrNode node, Path entityClass) {
 		log.debug("visit(node:{},param:{})", node, entityClass);
 
-		return node.getChildren().stream().map(n -> n.accept(this, entityClass)).collect(Collectors.reducing(BooleanExpression::or)).get();
+		return combine(visitChildren(node, entityClass, new ArrayList<>()), BooleanExpression::or);
+	}
+
+	/**
+	 * Collects the expressions of the children of the given node, flattening nested nodes of the same operator.
+	 */
+	private List<BooleanExpression> visitChildren(LogicalNode node, Path entityClass, List<BooleanExpression> expressions) {
+		for (var child : node) {
+			if (child instanceof LogicalNode logicalNode && logicalNode.getOperator() == node.getOperator()) {
+				visitChildren(logicalNode, entityClass, expressions);
+			} else {
+				expressions.add(child.accept(this, entityClass));
+			}
+		}
+		return expressions;
+	}
+
+	/**
+	 * Combines the expressions pairwise into a balanced tree.<br>
+	 * QueryDSL only has binary AND/OR operations, so a balanced tree keeps the depth logarithmic instead of the linear
+	 * depth of a left-deep chain.
+	 */
+	private static BooleanExpression combine(List<BooleanExpression> expressions, BinaryOperator<BooleanExpression> operator) {
+		List<BooleanExpression> level = expressions;
+		while (level.size() > 1) {
+			List<BooleanExpression> next = new ArrayList<>((level.size() + 1) / 2);
+			for (int i = 0; i < level.size(); i += 2) {
+				next.add(i + 1 < level.size() ? operator.apply(level.get(i), level.get(i + 1)) : level.get(i));
+			}
+			level = next;
+		}
+		return level.get(0);
 	}
 
 	ComparableEntityPath getComparableEntityPath(Class type, Path entityClass, String property) {
 		return Expressions.comparableEntityPath(type, entityClass, property);
 	}
 
+	private String likePattern(String argument) {
+		return likeWildcards && argument.indexOf('*') >= 0 ? argument.replace('*', '%') : "%" + argument + "%";
+	}
+
 	@SneakyThrows
 	StringExpression getStringExpression(Path entityClass, String property, boolean isEnumPath) {
 		if (entityClass instanceof StringExpression && (property == null || property.isEmpty())) {
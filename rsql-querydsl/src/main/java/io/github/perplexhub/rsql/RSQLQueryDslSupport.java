@@ -10,7 +10,6 @@ import org.springframework.util.StringUtils;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.BooleanExpression;
 
-import cz.jirutka.rsql.parser.RSQLParser;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -30,11 +29,25 @@ public class RSQLQueryDslSupport extends RSQLJPASupport {
 	}
 
 	public static BooleanExpression toPredicate(final String rsqlQuery, final Path qClazz, final Map<String, String> propertyPathMapper) {
-		log.debug("toPredicate({},qClazz:{},propertyPathMapper:{})", rsqlQuery, qClazz);
+		return toPredicate(rsqlQuery, qClazz, propertyPathMapper, InListBinding.EXACT);
+	}
+
+	public static BooleanExpression toPredicate(final String rsqlQuery, final Path qClazz, final Map<String, String> propertyPathMapper, final InListBinding inListBinding) {
+		return toPredicate(rsqlQuery, qClazz, propertyPathMapper, inListBinding, false);
+	}
+
+	/**
+	 * @param likeWildcards whether the {@code *} of a {@code =like=} argument, or one of its variants, are its
+	 *                      wildcards instead of the argument always being wrapped in {@code %}
+	 */
+	public static BooleanExpression toPredicate(final String rsqlQuery, final Path qClazz, final Map<String, String> propertyPathMapper, final InListBinding inListBinding,
+			final boolean likeWildcards) {
+		log.debug("toPredicate({},qClazz:{},propertyPathMapper:{},inListBinding:{},likeWildcards:{})", rsqlQuery, qClazz, propertyPathMapper, inListBinding, likeWildcards);
 		if (StringUtils.hasText(rsqlQuery)) {
-			return new RSQLParser(RSQLOperators.supportedOperators())
-					.parse(rsqlQuery)
-					.accept(new RSQLQueryDslPredicateConverter(propertyPathMapper), qClazz);
+			RSQLQueryDslPredicateConverter converter = new RSQLQueryDslPredicateConverter(propertyPathMapper);
+			converter.setInListBinding(inListBinding);
+			converter.setLikeWildcards(likeWildcards);
+			return parse(rsqlQuery, RSQLOperators.supportedOperators()).accept(converter, qClazz);
 		} else {
 			return null;
 		}
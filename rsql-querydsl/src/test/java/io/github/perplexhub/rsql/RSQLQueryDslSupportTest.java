@@ -13,6 +13,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -55,6 +57,74 @@ class RSQLQueryDslSupportTest {
 		assertThat(rsql, count, is(10L));
 	}
 
+	@Test
+	final void testNestedLogicalNodes() {
+		String rsql = "(id==1,(id==2,id==3)),(id==4;(name!=null;id=in=(4,5)))";
+		List<User> users = (List<User>) userRepository.findAll(toPredicate(rsql, QUser.user));
+		long count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(4L));
+
+		rsql = "id=ge=1;(id=le=7;(id!=2;id!=3)),id==1";
+		users = (List<User>) userRepository.findAll(toPredicate(rsql, QUser.user));
+		count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(5L));
+	}
+
+	@ParameterizedTest
+	@EnumSource(InListBinding.class)
+	final void testInListBinding(InListBinding inListBinding) {
+		String rsql = "company.id=in=(2,3,4)";
+		List<User> users = (List<User>) userRepository.findAll(toPredicate(rsql, QUser.user, null, inListBinding));
+		long count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(7L));
+
+		rsql = "company.id=out=(2,3,4)";
+		users = (List<User>) userRepository.findAll(toPredicate(rsql, QUser.user, null, inListBinding));
+		count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(5L));
+
+		rsql = "name=in=(February,nobody,'no one')";
+		users = (List<User>) userRepository.findAll(toPredicate(rsql, QUser.user, null, inListBinding));
+		count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(1L));
+	}
+
+	@Test
+	final void testInListBindingArrayUsesAny() {
+		String rsql = "company.id=in=(2,3,4)";
+		SqlStatements.clear();
+		long count = ((List<User>) userRepository.findAll(toPredicate(rsql, QUser.user, null, InListBinding.ARRAY))).size();
+		log.info("rsql: {} -> count: {}, sql: {}", rsql, count, SqlStatements.first());
+		assertThat(rsql, count, is(7L));
+		assertThat(SqlStatements.first(), containsString("= any(?)"));
+		assertThat(SqlStatements.first(), not(containsString("array_contains")));
+	}
+
+	@Test
+	final void testInSet() {
+		String handle = RSQLCommonSupport.getIdSetStore().put(List.of(2, 3, 4));
+		String rsql = "company.id=inset=" + handle;
+		List<User> users = (List<User>) userRepository.findAll(toPredicate(rsql, QUser.user));
+		long count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(7L));
+
+		rsql = "company.id=outset=" + handle;
+		users = (List<User>) userRepository.findAll(toPredicate(rsql, QUser.user));
+		count = users.size();
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(5L));
+
+		RSQLCommonSupport.getIdSetStore().remove(handle);
+		assertThatExceptionOfType(UnknownIdSetException.class)
+				.isThrownBy(() -> userRepository.findAll(toPredicate("company.id=inset=" + handle, QUser.user)));
+	}
+
 	@Test
 	final void testElementCollection1() {
 		String rsql = "tags=='tech'";
@@ -444,6 +514,56 @@ class RSQLQueryDslSupportTest {
 		assertThat(rsql, count, is(3L));
 	}
 
+	@Test
+	final void testStartsWithEndsWith() {
+		String rsql = "name=sw=Demo";
+		long count = companyRepository.count(toPredicate(rsql, QCompany.company));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(1L));
+
+		rsql = "name=isw=demo";
+		count = companyRepository.count(toPredicate(rsql, QCompany.company));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(1L));
+
+		rsql = "name=ew=Inc";
+		count = companyRepository.count(toPredicate(rsql, QCompany.company));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(2L));
+
+		rsql = "name=iendswith=inc";
+		count = companyRepository.count(toPredicate(rsql, QCompany.company));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(2L));
+
+		rsql = "company.name=startswith=Hello";
+		count = userRepository.count(toPredicate(rsql, QUser.user));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(2L));
+
+		rsql = "name=sw=%";
+		count = companyRepository.count(toPredicate(rsql, QCompany.company));
+		log.info("rsql: {} -> count: {}", rsql, count);
+		assertThat(rsql, count, is(0L));
+	}
+
+	@Test
+	final void testLikeWildcards() {
+		String rsql = "name=like=Hello*";
+		assertThat(rsql, companyRepository.count(toPredicate(rsql, QCompany.company)), is(0L));
+		assertThat(rsql, companyRepository.count(toPredicate(rsql, QCompany.company, null, InListBinding.EXACT, true)), is(1L));
+
+		rsql = "name=ilike=*inc";
+		assertThat(rsql, companyRepository.count(toPredicate(rsql, QCompany.company)), is(0L));
+		assertThat(rsql, companyRepository.count(toPredicate(rsql, QCompany.company, null, InListBinding.EXACT, true)), is(2L));
+
+		rsql = "name=like=Inc";
+		assertThat(rsql, companyRepository.count(toPredicate(rsql, QCompany.company, null, InListBinding.EXACT, true)), is(2L));
+
+		rsql = "name=notlike=*Inc";
+		assertThat(rsql, companyRepository.count(toPredicate(rsql, QCompany.company, null, InListBinding.EXACT, true)), is(4L));
+	}
+
 	@Test
 	final void testLikeIgnoreCase() {
 		String rsql = "name=ilike='BER'";